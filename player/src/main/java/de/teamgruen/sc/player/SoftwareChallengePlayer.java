@@ -7,15 +7,24 @@ package de.teamgruen.sc.player;
 
 import de.teamgruen.sc.player.clients.AdminClient;
 import de.teamgruen.sc.player.clients.PlayerClient;
+import de.teamgruen.sc.player.handlers.AlphaBetaGameHandler;
 import de.teamgruen.sc.player.handlers.MaxPassengersGameHandler;
+import de.teamgruen.sc.player.handlers.MonteCarloGameHandler;
 import de.teamgruen.sc.player.handlers.WeightedGameHandler;
+import de.teamgruen.sc.player.utilities.MoveUtil;
 import de.teamgruen.sc.sdk.SoftwareChallengeClient;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Perft;
 import de.teamgruen.sc.sdk.game.handlers.GameHandler;
 import de.teamgruen.sc.sdk.logging.AnsiColor;
 import de.teamgruen.sc.sdk.logging.Logger;
 import de.teamgruen.sc.sdk.protocol.exceptions.TcpConnectException;
 import jargs.gnu.CmdLineParser;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class SoftwareChallengePlayer {
 
     private static final Logger LOGGER = new Logger(System.out);
@@ -26,6 +35,15 @@ public class SoftwareChallengePlayer {
         final CmdLineParser.Option batchModeOption = parser.addBooleanOption('b', "batch-mode");
         final CmdLineParser.Option hostOption = parser.addStringOption('h', "host");
         final CmdLineParser.Option portOption = parser.addIntegerOption('p', "port");
+        final CmdLineParser.Option parallelismOption = parser.addIntegerOption('j', "parallelism");
+        final CmdLineParser.Option moveTimeOption = parser.addDoubleOption('T', "move-time");
+        final CmdLineParser.Option depthOption = parser.addIntegerOption('D', "depth");
+        final CmdLineParser.Option hashOption = parser.addIntegerOption('H', "hash");
+        final CmdLineParser.Option ponderOption = parser.addBooleanOption('o', "ponder");
+
+        final CmdLineParser.Option perftOption = parser.addIntegerOption('x', "perft");
+        final CmdLineParser.Option mementoOption = parser.addStringOption('m', "memento");
+        final CmdLineParser.Option seedOption = parser.addIntegerOption('S', "seed");
 
         final CmdLineParser.Option playStyleOption = parser.addStringOption('s', "play-style");
         final CmdLineParser.Option gameTypeOption = parser.addStringOption('g', "game-type");
@@ -49,9 +67,26 @@ public class SoftwareChallengePlayer {
         final int port = (Integer) parser.getOptionValue(portOption, 13050);
         final int tests = (int) parser.getOptionValue(testsOption, 0);
         final String playStyle = (String) parser.getOptionValue(playStyleOption, null);
+        final int parallelism = (int) parser.getOptionValue(parallelismOption, 1);
+        final double moveTimeFraction = (double) parser.getOptionValue(moveTimeOption, MoveUtil.getMoveTimeFraction());
+        final int maxDepth = (int) parser.getOptionValue(depthOption, MoveUtil.DEFAULT_MAX_DEPTH);
+        final int hashSize = (int) parser.getOptionValue(hashOption, MoveUtil.DEFAULT_TRANSPOSITION_TABLE_SIZE);
+        final boolean ponder = (Boolean) parser.getOptionValue(ponderOption, false);
+        final int perftDepth = (int) parser.getOptionValue(perftOption, 0);
 
         try {
-            if(tests > 0) {
+            MoveUtil.setParallelism(parallelism);
+            MoveUtil.setMoveTimeFraction(moveTimeFraction);
+            MoveUtil.setMaxDepth(maxDepth);
+            MoveUtil.setTranspositionTableSize(hashSize);
+            MoveUtil.setPondering(ponder);
+
+            if(perftDepth > 0) {
+                final String memento = (String) parser.getOptionValue(mementoOption, null);
+                final int seed = (int) parser.getOptionValue(seedOption, 0);
+
+                runPerft(memento, seed, perftDepth);
+            } else if(tests > 0) {
                 final AdminClient adminClient = new AdminClient(LOGGER, host, port, playStyle);
                 adminClient.connect();
 
@@ -68,6 +103,14 @@ public class SoftwareChallengePlayer {
                         LOGGER.info("Play-Style: " + AnsiColor.PURPLE + "MaxPassengers" + AnsiColor.RESET);
                         yield new MaxPassengersGameHandler(LOGGER);
                     }
+                    case "alphabeta" -> {
+                        LOGGER.info("Play-Style: " + AnsiColor.PURPLE + "AlphaBeta" + AnsiColor.RESET);
+                        yield new AlphaBetaGameHandler(LOGGER);
+                    }
+                    case "mcts" -> {
+                        LOGGER.info("Play-Style: " + AnsiColor.PURPLE + "MonteCarlo" + AnsiColor.RESET);
+                        yield new MonteCarloGameHandler(LOGGER);
+                    }
                     default -> throw new IllegalArgumentException("Illegal play style: " + playStyle);
                 };
 
@@ -89,9 +132,35 @@ public class SoftwareChallengePlayer {
             }
         } catch (TcpConnectException ex) {
             LOGGER.error("Could not connect to server: " + ex.getMessage());
+        } catch (IOException ex) {
+            LOGGER.error("Could not read memento: " + ex.getMessage());
         } catch (IllegalArgumentException ex) {
             LOGGER.error(ex.getMessage());
         }
     }
 
+    /**
+     * Counts the generated moves for every depth up to the given one and logs the throughput.
+     *
+     * @param memento the file of the memento to start from or null to start from a random board
+     * @param seed the seed of the random board
+     * @param depth the maximum depth to count
+     * @throws IOException if the memento could not be read
+     */
+    private static void runPerft(String memento, long seed, int depth) throws IOException {
+        final GameState gameState = memento != null
+                ? Perft.fromMemento(Files.readString(Path.of(memento)))
+                : Perft.randomState(seed);
+        final Perft perft = new Perft(gameState);
+
+        LOGGER.info("Perft: " + AnsiColor.PURPLE + (memento != null ? memento : "random board " + seed) + AnsiColor.RESET);
+
+        for (int i = 1; i <= depth; i++) {
+            final Perft.Result result = perft.run(i);
+
+            LOGGER.info(String.format("Depth %d: %d nodes in %d ms (%d nodes/s)",
+                    result.depth(), result.nodes(), result.nanos() / 1_000_000, result.getNodesPerSecond()));
+        }
+    }
+
 }
@@ -5,7 +5,9 @@
 
 package de.teamgruen.sc.player.clients;
 
+import de.teamgruen.sc.player.handlers.AlphaBetaGameHandler;
 import de.teamgruen.sc.player.handlers.MaxPassengersGameHandler;
+import de.teamgruen.sc.player.handlers.MonteCarloGameHandler;
 import de.teamgruen.sc.player.handlers.WeightedGameHandler;
 import de.teamgruen.sc.sdk.game.GameResult;
 import de.teamgruen.sc.sdk.game.GameState;
@@ -62,9 +64,7 @@ public class AdminClient extends Client {
 
                     try {
                         final Logger playerLogger = new Logger(new ByteArrayOutputStream());
-                        final GameHandler gameHandler = Objects.equals(playStyle, "weighted") || (playerId == 0 && !Objects.equals(playStyle, "max-passengers"))
-                                ? new WeightedGameHandler(playerLogger)
-                                : new MaxPassengersGameHandler(playerLogger);
+                        final GameHandler gameHandler = createGameHandler(playerId, playerLogger);
                         final PlayerClient playerClient = new PlayerClient(host, port, new GameHandler() {
                             @Override
                             public void onRoomJoin(String roomId) {
@@ -76,6 +76,11 @@ public class AdminClient extends Client {
                                 gameHandler.onGameStart(gameState);
                             }
 
+                            @Override
+                            public void beforeBoardUpdate(@NonNull GameState gameState) {
+                                gameHandler.beforeBoardUpdate(gameState);
+                            }
+
                             @Override
                             public void onBoardUpdate(@NonNull GameState gameState) {
                                 gameHandler.onBoardUpdate(gameState);
@@ -97,7 +102,7 @@ public class AdminClient extends Client {
                                 gameHandler.onResults(scores, result, reason);
 
                                 if(reason != null && !reason.isEmpty() && result.equals(GameResult.LOOSE)) {
-                                    final String playerName = gameHandler instanceof WeightedGameHandler ? "Weighted" : "MaxPassengers";
+                                    final String playerName = getPlayerName(gameHandler);
 
                                     print(Level.DEBUG, "Lost game " + RED + gameId + RESET + " - " + RED + playerName + RESET + ": " + WHITE + reason + RESET);
                                 }
@@ -123,7 +128,7 @@ public class AdminClient extends Client {
 
                             @Override
                             public void onError(String message) {
-                                final String playerName = gameHandler instanceof WeightedGameHandler ? "Weighted" : "MaxPassengers";
+                                final String playerName = getPlayerName(gameHandler);
 
                                 print(Level.ERROR, "Game " + RED + gameId + RESET + " - " + RED + playerName + RESET + ": " + WHITE + message + RESET);
 
@@ -241,6 +246,8 @@ public class AdminClient extends Client {
             final String playerDescription = switch (playStyle == null ? "mixed" : playStyle) {
                 case "weighted" -> "Weighted #" + (playerId + 1);
                 case "max-passengers" -> "MaxPassengers #" + (playerId + 1);
+                case "alphabeta" -> "AlphaBeta #" + (playerId + 1);
+                case "mcts" -> "MonteCarlo #" + (playerId + 1);
                 default -> playerId == 0 ? "Weighted" : "MaxPassengers";
             };
 
@@ -256,6 +263,32 @@ public class AdminClient extends Client {
         System.exit(0);
     }
 
+    /**
+     * @param playerId the index of the player in the room
+     * @param logger the logger of the player
+     * @return the handler of the play style, in mixed mode the first player is weighted and the second max-passengers
+     */
+    private GameHandler createGameHandler(int playerId, Logger logger) {
+        return switch (this.playStyle == null ? "mixed" : this.playStyle) {
+            case "weighted" -> new WeightedGameHandler(logger);
+            case "max-passengers" -> new MaxPassengersGameHandler(logger);
+            case "alphabeta" -> new AlphaBetaGameHandler(logger);
+            case "mcts" -> new MonteCarloGameHandler(logger);
+            default -> playerId == 0 ? new WeightedGameHandler(logger) : new MaxPassengersGameHandler(logger);
+        };
+    }
+
+    private static String getPlayerName(GameHandler gameHandler) {
+        if(gameHandler instanceof WeightedGameHandler)
+            return "Weighted";
+        else if(gameHandler instanceof AlphaBetaGameHandler)
+            return "AlphaBeta";
+        else if(gameHandler instanceof MonteCarloGameHandler)
+            return "MonteCarlo";
+
+        return "MaxPassengers";
+    }
+
     private void print(Level level, String message) {
         synchronized (this.logger) {
             if(!this.logger.log(level, message, replaceRequired.get()))
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.handlers;
+
+import de.teamgruen.sc.player.utilities.AlphaBetaSearch;
+import de.teamgruen.sc.player.utilities.MoveUtil;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.logging.Logger;
+import lombok.NonNull;
+
+import static de.teamgruen.sc.sdk.logging.AnsiColor.*;
+
+public class AlphaBetaGameHandler extends BaseGameHandler {
+
+    public AlphaBetaGameHandler(Logger logger) {
+        super(logger, (gameState, deadline) -> new AlphaBetaSearch(gameState, MoveUtil.getTranspositionTable())
+                .search(deadline, AlphaBetaSearch.MAX_DEPTH));
+    }
+
+    @Override
+    public void onBoardUpdate(@NonNull GameState gameState) {
+        this.setNextMove(gameState, () -> {
+            final AlphaBetaSearch search = new AlphaBetaSearch(gameState, MoveUtil.getTranspositionTable());
+            final Move move = search.search(MoveUtil.getMoveTime(), AlphaBetaSearch.MAX_DEPTH).orElse(null);
+
+            if(move == null) {
+                this.logger.debug(WHITE + "Falling back to " + PURPLE + "Weighted" + WHITE + " player" + RESET);
+
+                // the weighted player also tries moves with multiple pushes
+                return MoveUtil.getMostEfficientMove(gameState).orElse(null);
+            }
+
+            this.logger.debug(
+                    "Searched " + PURPLE + search.getDepth() + WHITE + " plies, " +
+                            PURPLE + String.format("%,d", search.getNodes()) + WHITE + " nodes, score " +
+                            PURPLE + String.format("%.2f", search.getScore()) +
+                            RESET
+            );
+
+            return move;
+        });
+    }
+
+}
@@ -5,10 +5,11 @@
 
 package de.teamgruen.sc.player.handlers;
 
+import de.teamgruen.sc.player.utilities.MoveUtil;
+import de.teamgruen.sc.player.utilities.Ponderer;
 import de.teamgruen.sc.sdk.game.GameResult;
 import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Move;
-import de.teamgruen.sc.sdk.game.board.Ship;
 import de.teamgruen.sc.sdk.game.handlers.GameHandler;
 import de.teamgruen.sc.sdk.logging.Logger;
 import de.teamgruen.sc.sdk.protocol.data.actions.Action;
@@ -26,10 +27,23 @@ public abstract class BaseGameHandler implements GameHandler {
 
     protected final Logger logger;
     protected List<Action> nextActions;
+    /**
+     * Searches during the enemy's turn, null if pondering is disabled or not supported by the play style
+     */
+    private final Ponderer ponderer;
     private long lastActionTime;
 
     protected BaseGameHandler(Logger logger) {
+        this(logger, null);
+    }
+
+    /**
+     * @param logger the logger
+     * @param ponderSearch the search used while pondering, null if the play style does not support pondering
+     */
+    protected BaseGameHandler(Logger logger, Ponderer.Search ponderSearch) {
         this.logger = logger;
+        this.ponderer = ponderSearch != null && MoveUtil.isPondering() ? new Ponderer(ponderSearch) : null;
     }
 
     @Override
@@ -42,9 +56,26 @@ public abstract class BaseGameHandler implements GameHandler {
         this.logger.info("Joined room " + PURPLE + roomId + RESET);
     }
 
+    @Override
+    public void beforeBoardUpdate(@NonNull GameState gameState) {
+        if(this.ponderer == null)
+            return;
+
+        try {
+            this.ponderer.stop();
+        } catch (IllegalStateException ex) {
+            // the game state is restored, the next move is searched as usual
+            this.logger.error(ex.getMessage() + ": " + ex.getCause());
+        }
+    }
+
     public void setNextMove(@NonNull GameState gameState, @NonNull Supplier<Move> moveSupplier) {
-        if(!gameState.getPlayerTeam().equals(gameState.getCurrentTeam()))
+        if(!gameState.getPlayerTeam().equals(gameState.getCurrentTeam())) {
+            if(this.ponderer != null && gameState.getCurrentTeam() != null)
+                this.ponderer.start(gameState, MoveUtil.getMoveTime());
+
             return;
+        }
 
         this.lastActionTime = System.currentTimeMillis();
 
@@ -53,17 +84,21 @@ public abstract class BaseGameHandler implements GameHandler {
 
         this.logger.debug("Calculating turn " + formattedTurn);
 
-        final Move move = moveSupplier.get();
+        final Move ponderedMove = this.ponderer != null ? this.ponderer.take(gameState).orElse(null) : null;
+
+        if(ponderedMove != null)
+            this.logger.debug("Reusing the pondered move");
+        else if(this.ponderer != null)
+            this.logger.debug("The enemy's reply was not pondered");
+
+        final Move move = ponderedMove != null ? ponderedMove : moveSupplier.get();
 
         if(move == null)
             this.nextActions = null;
         else {
-            final Ship playerShip = gameState.getPlayerShip();
-            final List<Action> actions = move.getActions();
-            actions.forEach(action -> action.perform(gameState));
-            playerShip.setCoal(playerShip.getCoal() - move.getCoalCost(playerShip.getDirection(), playerShip.getSpeed(), playerShip.getFreeTurns()));
+            gameState.apply(move);
 
-            this.nextActions = actions;
+            this.nextActions = move.getActions();
         }
 
         this.logger.debug(
@@ -94,6 +129,9 @@ public abstract class BaseGameHandler implements GameHandler {
 
     @Override
     public void onResults(@NonNull LinkedHashMap<ScoreFragment, Integer> scores, @NonNull GameResult result, String reason) {
+        if(this.ponderer != null)
+            this.ponderer.shutdown();
+
         final int maxNameLength = scores.keySet()
                 .stream()
                 .mapToInt(scoreFragment -> scoreFragment.getName().length())
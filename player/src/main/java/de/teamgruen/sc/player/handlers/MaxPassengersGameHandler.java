@@ -7,6 +7,7 @@ package de.teamgruen.sc.player.handlers;
 
 import de.teamgruen.sc.player.utilities.MoveUtil;
 import de.teamgruen.sc.player.utilities.paths.PathFinder;
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Move;
 import de.teamgruen.sc.sdk.game.Vector3;
@@ -74,10 +75,10 @@ public class MaxPassengersGameHandler extends BaseGameHandler {
 
                     if (shortestPath != null && !shortestPath.isEmpty()) {
                         final Vector3 endPosition = shortestPath.get(shortestPath.size() - 1);
-                        final double segmentDistance = gameState.getBoard().getSegmentDistance(playerShip.getPosition(), endPosition);
+                        final int segmentProgress = gameState.getBoard().getSegmentProgressDistance(Cell.of(playerShip.getPosition()), Cell.of(endPosition));
 
                         // let weighted player handle short paths
-                        if(segmentDistance > 0.75) {
+                        if(segmentProgress > 3) {
                             final Optional<Move> move = MoveUtil.moveFromPath(gameState, shortestPath);
 
                             if (move.isPresent())
@@ -105,10 +106,10 @@ public class MaxPassengersGameHandler extends BaseGameHandler {
             // passengers
             board.getPassengerFields().forEach((position, field) -> {
                 final Passenger passenger = (Passenger) field;
-                final Vector3 collectPosition = position.copy().add(passenger.getDirection().toVector3());
+                final Vector3 collectPosition = position.copy().add(passenger.getDirection());
 
                 // skip passengers that are too far behind
-                if(board.getSegmentDistance(shipPosition, collectPosition) < -0.5)
+                if(board.getSegmentProgressDistance(Cell.of(shipPosition), Cell.of(collectPosition)) < -2)
                     return;
 
                 if(isEnemyAhead && board.getSegmentIndex(collectPosition) < board.getSegmentIndex(enemyPosition) - 2)
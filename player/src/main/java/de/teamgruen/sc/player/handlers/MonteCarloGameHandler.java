@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.handlers;
+
+import de.teamgruen.sc.player.utilities.MonteCarloTreeSearch;
+import de.teamgruen.sc.player.utilities.MoveUtil;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.logging.Logger;
+import lombok.NonNull;
+
+import static de.teamgruen.sc.sdk.logging.AnsiColor.*;
+
+public class MonteCarloGameHandler extends BaseGameHandler {
+
+    /**
+     * The search of the game, its tree is kept between the turns
+     */
+    private final MonteCarloTreeSearch search = new MonteCarloTreeSearch(MoveUtil.getParallelism());
+
+    public MonteCarloGameHandler(Logger logger) {
+        super(logger);
+    }
+
+    @Override
+    public void onBoardUpdate(@NonNull GameState gameState) {
+        this.setNextMove(gameState, () -> {
+            final Move move = this.search.search(gameState, MoveUtil.getMoveTime()).orElse(null);
+
+            if(move == null) {
+                this.logger.debug(WHITE + "Falling back to " + PURPLE + "Weighted" + WHITE + " player" + RESET);
+
+                // the weighted player also tries moves with multiple pushes
+                return MoveUtil.getMostEfficientMove(gameState).orElse(null);
+            }
+
+            this.logger.debug(
+                    "Searched " + PURPLE + String.format("%,d", this.search.getIterations()) + WHITE + " rollouts, " +
+                            PURPLE + String.format("%,d", this.search.getReusedVisits()) + WHITE + " visits reused" +
+                            RESET
+            );
+
+            return move;
+        });
+    }
+
+}
@@ -7,18 +7,38 @@ package de.teamgruen.sc.player.handlers;
 
 import de.teamgruen.sc.player.utilities.MoveUtil;
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.TranspositionTable;
 import de.teamgruen.sc.sdk.logging.Logger;
 import lombok.NonNull;
 
+import static de.teamgruen.sc.sdk.logging.AnsiColor.*;
+
 public class WeightedGameHandler extends BaseGameHandler {
 
     public WeightedGameHandler(Logger logger) {
-        super(logger);
+        super(logger, MoveUtil::getMostEfficientMove);
     }
 
     @Override
     public void onBoardUpdate(@NonNull GameState gameState) {
-        this.setNextMove(gameState, () -> MoveUtil.getMostEfficientMove(gameState, 750).orElse(null));
+        this.setNextMove(gameState, () -> {
+            final Move move = MoveUtil.getMostEfficientMove(gameState).orElse(null);
+            final TranspositionTable table = MoveUtil.getTranspositionTable();
+
+            if(table != null) {
+                this.logger.debug(
+                        "Transposition table: " +
+                                PURPLE + String.format("%,d", table.getHits()) + WHITE + " hits, " +
+                                PURPLE + String.format("%,d", table.getCollisions()) + WHITE + " collisions, " +
+                                PURPLE + String.format("%.1f", table.getHitRate() * 100) + WHITE + "% hit rate" +
+                                RESET
+                );
+                table.resetStats();
+            }
+
+            return move;
+        });
     }
 
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.Cell;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.MoveIterator;
+import de.teamgruen.sc.sdk.game.TranspositionTable;
+import de.teamgruen.sc.sdk.game.board.Board;
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adversarial search that alternates the moves of both ships, so pushes and races to passengers are resolved
+ * by the replies of the enemy instead of fixed bonuses. The search is a negamax alpha-beta search, deepened ply by ply
+ * until the deadline, the best move of the deepest fully searched ply is returned.
+ * <p>
+ * The moves are applied to and undone on the given game state, which is restored after every search.
+ * The moves of a node are ordered by the best move of the last visit, looked up in the transposition table,
+ * followed by the heuristic order of {@link MoveBuffer#iterator()}.
+ * The leaves are scored with the terms of {@link MoveUtil#evaluateMove} for both ships, see {@link #evaluate(Team)}.
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * The maximum amount of plies to search, the deadline usually ends the search much earlier
+     */
+    public static final int MAX_DEPTH = 32;
+    /**
+     * The score of a finished game, reduced by the amount of plies to prefer the fastest win and the slowest loss
+     */
+    public static final double WIN_SCORE = 10_000;
+    /**
+     * The coal a move may use besides the free acceleration and turn, if no move is possible all coal is used.
+     * More coal multiplies the moves of every node, while the leaves still value the remaining coal.
+     */
+    private static final int SEARCH_COAL = 1;
+    /**
+     * Distinguishes equal ship states with another team to move in the transposition table
+     */
+    private static final long SIDE_KEY = 0x5DEECE66D2F3C1A7L;
+
+    private final GameState gameState;
+    private final TranspositionTable transpositionTable;
+    private MoveBuffer[] buffers = new MoveBuffer[0];
+    private int generation;
+    private AtomicLong deadline;
+    /**
+     * The amount of nodes visited by the last search
+     */
+    @Getter
+    private long nodes;
+    /**
+     * The deepest fully searched ply of the last search
+     */
+    @Getter
+    private int depth;
+    /**
+     * The score of the returned move from the player's perspective
+     */
+    @Getter
+    private double score;
+
+    /**
+     * @param gameState the game state to search, the player team moves first
+     * @param transpositionTable the table to order the moves with, null to only use the heuristic order
+     */
+    public AlphaBetaSearch(@NonNull GameState gameState, TranspositionTable transpositionTable) {
+        this.gameState = gameState;
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Searches the best move of the player until the timeout or the maximum depth is reached.
+     *
+     * @param timeout the time to search in milliseconds, the first ply is always searched
+     * @param maxDepth the maximum amount of plies to search
+     * @return the best move or an empty optional if the player's ship can not move
+     * @throws IllegalArgumentException if the maximum depth is out of range
+     * @throws IllegalStateException if a ship position is unknown
+     */
+    public Optional<Move> search(int timeout, int maxDepth) {
+        return this.search(new AtomicLong(System.nanoTime() + timeout * 1_000_000L), maxDepth);
+    }
+
+    /**
+     * Searches the best move of the player until the deadline or the maximum depth is reached.
+     * The deadline is read while searching, so another thread can cancel the search by moving it to the past.
+     *
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted, the first ply is always searched
+     * @param maxDepth the maximum amount of plies to search
+     * @return the best move or an empty optional if the player's ship can not move
+     * @throws IllegalArgumentException if the maximum depth is out of range
+     * @throws IllegalStateException if a ship position is unknown
+     */
+    public Optional<Move> search(@NonNull AtomicLong deadline, int maxDepth) {
+        if(maxDepth < 1 || maxDepth > MAX_DEPTH)
+            throw new IllegalArgumentException("Illegal depth: " + maxDepth);
+
+        final Team team = this.gameState.getPlayerTeam();
+        final Ship playerShip = this.gameState.getShip(team);
+
+        if(this.buffers.length <= maxDepth) {
+            final int length = this.buffers.length;
+            this.buffers = Arrays.copyOf(this.buffers, maxDepth + 1);
+
+            for (int i = length; i <= maxDepth; i++)
+                this.buffers[i] = new MoveBuffer();
+        }
+
+        this.generation = this.transpositionTable == null ? 0 : this.transpositionTable.newGeneration();
+        this.deadline = deadline;
+        this.nodes = 0;
+        this.depth = 0;
+
+        final MoveBuffer rootBuffer = this.buffers[0];
+
+        if(this.generateMoves(rootBuffer, team) == 0)
+            return Optional.empty();
+
+        // the heuristically best move is searched first
+        int bestIndex = rootBuffer.iterator().nextIndex();
+        double bestScore = -Double.MAX_VALUE;
+
+        for (int currentDepth = 1; currentDepth <= maxDepth; currentDepth++) {
+            try {
+                bestIndex = this.searchRoot(team, currentDepth, bestIndex);
+                bestScore = this.score;
+                this.depth = currentDepth;
+
+                // the outcome of the game is certain, deeper plies can not change the move
+                if(Math.abs(bestScore) >= WIN_SCORE - MAX_DEPTH || System.nanoTime() - this.deadline.get() > 0)
+                    break;
+            } catch (DeadlineExceededException ignored) {
+                break;
+            }
+        }
+
+        this.score = bestScore;
+
+        final Move move = rootBuffer.toMove(bestIndex);
+        MoveUtil.addAcceleration(playerShip.getSpeed(), move);
+
+        return Optional.of(move);
+    }
+
+    /**
+     * Searches all root moves with the given depth, the best move of the previous ply is searched first.
+     * The score of the best move is stored in {@link #score}.
+     *
+     * @return the buffer index of the best root move
+     * @throws DeadlineExceededException if the deadline passed
+     */
+    private int searchRoot(Team team, int depth, int firstIndex) {
+        final MoveBuffer buffer = this.buffers[0];
+        double alpha = -Double.MAX_VALUE;
+        int bestIndex = firstIndex;
+
+        for (int index : order(buffer, firstIndex)) {
+            final double score = this.searchMove(team, buffer, index, depth, alpha, Double.MAX_VALUE, 0);
+
+            if(score > alpha) {
+                alpha = score;
+                bestIndex = index;
+            }
+        }
+
+        this.score = alpha;
+
+        return bestIndex;
+    }
+
+    /**
+     * @param team the team to move
+     * @param depth the remaining plies
+     * @param alpha the score the moving team is already guaranteed
+     * @param beta the score the other team is already guaranteed, negated
+     * @param ply the amount of plies from the root
+     * @return the score of the node from the perspective of the moving team
+     * @throws DeadlineExceededException if the deadline passed
+     */
+    private double search(Team team, int depth, double alpha, double beta, int ply) {
+        // the first ply is always completed, it only scores the root moves
+        if((++this.nodes & 0xFF) == 0 && this.depth > 0 && System.nanoTime() - this.deadline.get() > 0)
+            throw DeadlineExceededException.INSTANCE;
+
+        if(depth == 0)
+            return this.evaluate(team);
+
+        final MoveBuffer buffer = this.buffers[ply];
+
+        // a stuck ship looses the game
+        if(this.generateMoves(buffer, team) == 0)
+            return -WIN_SCORE + ply;
+
+        final long key = this.gameState.getHash() ^ (team == Team.ONE ? 0 : SIDE_KEY);
+        int bestIndex = -1;
+
+        for (int index : order(buffer, this.findHashMove(buffer, key))) {
+            final double score = this.searchMove(team, buffer, index, depth, alpha, beta, ply);
+
+            if(score > alpha) {
+                alpha = score;
+                bestIndex = index;
+
+                if(alpha >= beta)
+                    break;
+            }
+        }
+
+        if(this.transpositionTable != null && bestIndex != -1)
+            this.transpositionTable.store(key, this.generation, depth, alpha, buffer.getActions(bestIndex));
+
+        return alpha;
+    }
+
+    /**
+     * Applies a move, searches the replies of the other team and undoes the move.
+     *
+     * @return the score of the move from the perspective of the moving team
+     */
+    private double searchMove(Team team, MoveBuffer buffer, int index, int depth, double alpha, double beta, int ply) {
+        // reaching the goal ends the game, no reply can change it
+        if(buffer.isGoal(index))
+            return WIN_SCORE - ply - 1;
+
+        this.gameState.apply(team, buffer.toMove(index));
+
+        try {
+            return -this.search(team.getOpponent(), depth - 1, -beta, -alpha, ply + 1);
+        } finally {
+            this.gameState.undo();
+        }
+    }
+
+    /**
+     * @param buffer the buffer of the moves to order
+     * @param firstIndex the index of the move to search first or -1 to only use the heuristic order
+     * @return the buffer indices in search order
+     */
+    private static int[] order(MoveBuffer buffer, int firstIndex) {
+        final int[] order = new int[buffer.size()];
+        final MoveIterator iterator = buffer.iterator();
+        int count = 0;
+
+        if(firstIndex != -1)
+            order[count++] = firstIndex;
+
+        while (iterator.hasNext()) {
+            final int index = iterator.nextIndex();
+
+            if(index != firstIndex)
+                order[count++] = index;
+        }
+
+        return order;
+    }
+
+    /**
+     * @return the buffer index of the best move stored for the key or -1 if there is none
+     */
+    private int findHashMove(MoveBuffer buffer, long key) {
+        if(this.transpositionTable == null)
+            return -1;
+
+        final TranspositionTable.Entry entry = this.transpositionTable.probe(key, this.generation, 0);
+
+        if(entry == null)
+            return -1;
+
+        for (int i = 0; i < buffer.size(); i++) {
+            if(buffer.getActions(i) == entry.bestMove())
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Generates the moves of the team with at most {@link #SEARCH_COAL} coal, or with all coal if none are possible.
+     *
+     * @return the amount of generated moves
+     */
+    private int generateMoves(MoveBuffer buffer, Team team) {
+        final Ship ship = this.gameState.getShip(team), enemyShip = this.gameState.getShip(team.getOpponent());
+        final Board board = this.gameState.getBoard();
+        final int cell = Cell.of(ship.getPosition()), enemyCell = Cell.of(enemyShip.getPosition());
+        final int moveCount = board.getMoves(buffer, ship, cell, ship.getDirection(), enemyShip, enemyCell,
+                ship.getSpeed(), ship.getFreeTurns(), Math.min(ship.getCoal(), SEARCH_COAL), false);
+
+        if(moveCount > 0 || ship.getCoal() <= SEARCH_COAL)
+            return moveCount;
+
+        return board.getMoves(buffer, ship, cell, ship.getDirection(), enemyShip, enemyCell,
+                ship.getSpeed(), ship.getFreeTurns(), ship.getCoal(), false);
+    }
+
+    /**
+     * Scores the state as the difference of the scores of both ships.
+     *
+     * @param team the team to score the state for
+     * @return the score from the perspective of the given team
+     */
+    public double evaluate(@NonNull Team team) {
+        final Board board = this.gameState.getBoard();
+
+        return evaluateShip(board, this.gameState.getShip(team)) - evaluateShip(board, this.gameState.getShip(team.getOpponent()));
+    }
+
+    /**
+     * Scores a ship with the weights of {@link MoveUtil#evaluateMove}: the collected passengers,
+     * the segment progress, which is only worth little beyond the fifth segment without enough passengers,
+     * the remaining coal and the turns to reach the direction of the next segment.
+     *
+     * @param board the game board
+     * @param ship the ship to score
+     * @return the score of the ship
+     */
+    public static double evaluateShip(@NonNull Board board, @NonNull Ship ship) {
+        if(ship.getPosition() == null)
+            return 0;
+
+        final int cell = Cell.of(ship.getPosition());
+        final int passengers = ship.getPassengers();
+        final boolean hasEnoughPassengers = ship.hasEnoughPassengers();
+        final double progress = (board.getSegmentIndex(cell) * 16
+                + board.getSegmentColumn(cell) * 4
+                + ship.getDirection().toFieldColumn()) / 16d;
+        final double progressWeight = hasEnoughPassengers ? 3.5 : 2;
+
+        return Math.min(passengers, 2) * 12 + Math.max(0, passengers - 2) * 3
+                + Math.min(progress, 5) * progressWeight
+                + Math.max(0, progress - 5) * progressWeight * (hasEnoughPassengers ? 2.5 : 0.25)
+                + ship.getCoal() * (hasEnoughPassengers ? 1 : 2)
+                - board.getSegmentDirectionCost(ship.getPosition(), ship.getDirection()) * 0.75;
+    }
+
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+/**
+ * Thrown to unwind a search once its deadline passed, shared because it carries no state.
+ */
+final class DeadlineExceededException extends RuntimeException {
+
+    static final DeadlineExceededException INSTANCE = new DeadlineExceededException();
+
+    private DeadlineExceededException() {
+        super("Deadline exceeded", null, false, false);
+    }
+
+}
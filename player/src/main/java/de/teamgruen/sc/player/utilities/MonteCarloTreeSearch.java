@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.GameSnapshot;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.MoveIterator;
+import de.teamgruen.sc.sdk.game.ShipSnapshot;
+import de.teamgruen.sc.sdk.game.board.Board;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monte Carlo tree search over the moves of both ships. All threads of the search share one tree,
+ * a node selected by a thread counts as a lost visit until the thread has backed up its result,
+ * so concurrent threads spread over different branches.
+ * <p>
+ * The tree is built from immutable {@link GameSnapshot}s, so the threads never mutate the game state.
+ * The leaves are scored by short rollouts that pick one of the heuristically best moves of {@link Board#getMoves}
+ * and score the final state like {@link AlphaBetaSearch#evaluate(Team)}.
+ * <p>
+ * The subtree of the chosen move is kept, the next search continues in the node of the enemy's actual reply.
+ */
+public class MonteCarloTreeSearch {
+
+    /**
+     * The amount of plies played by a rollout before its state is scored
+     */
+    public static final int ROLLOUT_DEPTH = 8;
+    private static final double EXPLORATION = 0.7;
+    /**
+     * The score difference that is worth a win probability of about 73 %
+     */
+    private static final double SCORE_SCALE = 10;
+    /**
+     * The coal a rollout move may use besides the free acceleration and turn, see {@link AlphaBetaSearch}
+     */
+    private static final int ROLLOUT_COAL = 1;
+    /**
+     * The amount of heuristically best moves a rollout picks from
+     */
+    private static final int ROLLOUT_CANDIDATES = 3;
+    private static final ThreadLocal<MoveBuffer> MOVE_BUFFER = ThreadLocal.withInitial(MoveBuffer::new);
+
+    /**
+     * Pool for the search threads, null if the search runs on the calling thread
+     */
+    private final ForkJoinPool pool;
+    private Node root;
+    /**
+     * The amount of rollouts of the last search
+     */
+    @Getter
+    private long iterations;
+    /**
+     * The amount of visits of the root that were kept from the previous search
+     */
+    @Getter
+    private int reusedVisits;
+
+    /**
+     * @param parallelism the amount of threads searching the tree, 1 to search on the calling thread
+     * @throws IllegalArgumentException if the parallelism is less than 1
+     */
+    public MonteCarloTreeSearch(int parallelism) {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Illegal parallelism: " + parallelism);
+
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Searches the best move of the current team until the timeout. If the state is part of the tree kept from
+     * the previous search, the search continues in its node.
+     *
+     * @param gameState the current game state
+     * @param timeout the time to search in milliseconds, the moves of the root are always generated
+     * @return the most visited move or an empty optional if the ship can not move
+     * @throws IllegalStateException if the current team or a ship position is unknown
+     */
+    public Optional<Move> search(@NonNull GameState gameState, int timeout) {
+        final Node root = this.advance(GameSnapshot.of(gameState));
+        final long deadline = System.nanoTime() + timeout * 1_000_000L;
+        final LongAdder iterations = new LongAdder();
+        final Runnable worker = () -> {
+            do {
+                this.iterate(root);
+                iterations.increment();
+            } while (System.nanoTime() - deadline < 0);
+        };
+
+        this.reusedVisits = root.visits.get();
+
+        if(this.pool == null)
+            worker.run();
+        else {
+            final List<RecursiveAction> tasks = new ArrayList<>(this.pool.getParallelism());
+
+            for (int i = 0; i < this.pool.getParallelism(); i++) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        worker.run();
+                    }
+                });
+            }
+
+            this.pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        this.iterations = iterations.sum();
+
+        Node bestChild = null;
+
+        for (Node child : expand(root)) {
+            if(bestChild == null || child.visits.get() > bestChild.visits.get())
+                bestChild = child;
+        }
+
+        // keep the subtree of the chosen move for the next search
+        this.root = bestChild;
+
+        if(bestChild == null)
+            return Optional.empty();
+
+        final Move move = bestChild.move.copy();
+        MoveUtil.addAcceleration(gameState.getShip(root.state.getCurrentTeam()).getSpeed(), move);
+
+        return Optional.of(move);
+    }
+
+    /**
+     * Looks up the state in the kept root and its children, which are the replies of the enemy
+     * to the previously chosen move. The tree is dropped if the board changed since it was built,
+     * since its nodes cache the moves generated on the old board.
+     *
+     * @param snapshot the current state
+     * @return the node of the state or a new root if it is not part of the tree
+     */
+    private Node advance(GameSnapshot snapshot) {
+        final Node root = this.root;
+
+        if(root != null && !root.state.isBoardChanged()) {
+            if(matches(root.state, snapshot))
+                return root;
+
+            final Node[] children = root.children;
+
+            if(children != null) {
+                for (Node child : children) {
+                    if(matches(child.state, snapshot))
+                        return child;
+                }
+            }
+        }
+
+        return new Node(snapshot, null, false);
+    }
+
+    /**
+     * Selects a path with the upper confidence bound, expands its leaf if it was visited before,
+     * scores the leaf and backs the result up the path.
+     *
+     * @param root the root of the search
+     */
+    private void iterate(Node root) {
+        final List<Node> path = new ArrayList<>();
+        Node node = root;
+
+        path.add(node);
+
+        while (!node.goal) {
+            Node[] children = node.children;
+
+            if(children == null) {
+                if(node != root && node.visits.get() == 0)
+                    break;
+
+                children = expand(node);
+            }
+
+            if(children.length == 0)
+                break;
+
+            node = select(node, children);
+            node.virtualLosses.incrementAndGet();
+            path.add(node);
+        }
+
+        final double reward = evaluate(node);
+
+        for (Node visited : path) {
+            if(visited != root)
+                visited.virtualLosses.decrementAndGet();
+
+            visited.reward.add(visited.getMovingTeam() == Team.ONE ? reward : 1 - reward);
+            visited.visits.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param node the node to expand
+     * @return the children of the node in the heuristic order of {@link MoveBuffer#iterator()}
+     */
+    private static Node[] expand(Node node) {
+        synchronized (node) {
+            if(node.children != null)
+                return node.children;
+
+            final MoveBuffer buffer = MOVE_BUFFER.get();
+            final int moveCount = node.state.getMoves(buffer);
+            final MoveIterator iterator = buffer.iterator();
+            final Node[] children = new Node[moveCount];
+
+            for (int i = 0; i < moveCount; i++) {
+                final int index = iterator.nextIndex();
+
+                children[i] = new Node(node.state.apply(buffer, index), buffer.toMove(index), buffer.isGoal(index));
+            }
+
+            node.children = children;
+
+            return children;
+        }
+    }
+
+    /**
+     * @return the unvisited child first in heuristic order or the child with the highest upper confidence bound,
+     * virtual losses count as visits without reward
+     */
+    private static Node select(Node parent, Node[] children) {
+        final double logVisits = Math.log(Math.max(1, parent.visits.get() + parent.virtualLosses.get()));
+        Node bestChild = null;
+        double bestValue = -Double.MAX_VALUE;
+
+        for (Node child : children) {
+            final int visits = child.visits.get() + child.virtualLosses.get();
+
+            if(visits == 0)
+                return child;
+
+            final double value = child.reward.sum() / visits + EXPLORATION * Math.sqrt(logVisits / visits);
+
+            if(value > bestValue) {
+                bestValue = value;
+                bestChild = child;
+            }
+        }
+
+        return bestChild;
+    }
+
+    /**
+     * @param node the leaf to score
+     * @return the reward of team one, from 0 for a loss to 1 for a win
+     */
+    private static double evaluate(Node node) {
+        final Node[] children = node.children;
+
+        // the moving team reached the goal or the other ship is stuck
+        if(node.goal || (children != null && children.length == 0))
+            return node.getMovingTeam() == Team.ONE ? 1 : 0;
+
+        return rollout(node.state);
+    }
+
+    /**
+     * Plays {@link #ROLLOUT_DEPTH} plies, every move is picked randomly from the heuristically best moves.
+     *
+     * @param state the state to start from
+     * @return the reward of team one, from 0 for a loss to 1 for a win
+     */
+    private static double rollout(GameSnapshot state) {
+        final MoveBuffer buffer = MOVE_BUFFER.get();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int ply = 0; ply < ROLLOUT_DEPTH; ply++) {
+            final Team team = state.getCurrentTeam();
+            int moveCount = state.getMoves(buffer, team, ROLLOUT_COAL);
+
+            if(moveCount == 0)
+                moveCount = state.getMoves(buffer, team);
+
+            if(moveCount == 0)
+                return team == Team.ONE ? 0 : 1;
+
+            final MoveIterator iterator = buffer.iterator();
+            int index = iterator.nextIndex();
+
+            // goal moves are ordered first
+            if(buffer.isGoal(index))
+                return team == Team.ONE ? 1 : 0;
+
+            for (int skip = random.nextInt(Math.min(moveCount, ROLLOUT_CANDIDATES)); skip > 0; skip--)
+                index = iterator.nextIndex();
+
+            state = state.apply(buffer, index);
+        }
+
+        final Board board = state.getBoard();
+        final double score = AlphaBetaSearch.evaluateShip(board, state.getShipOne().toShip())
+                - AlphaBetaSearch.evaluateShip(board, state.getShipTwo().toShip());
+
+        return 1 / (1 + Math.exp(-score / SCORE_SCALE));
+    }
+
+    /**
+     * @return whether both states are equal in all values the server reports for the moves
+     */
+    private static boolean matches(GameSnapshot state, GameSnapshot other) {
+        return state.getCurrentTeam() == other.getCurrentTeam()
+                && state.getPassengerHash() == other.getPassengerHash()
+                && state.getSegmentCount() == other.getSegmentCount()
+                && matches(state.getShipOne(), other.getShipOne())
+                && matches(state.getShipTwo(), other.getShipTwo());
+    }
+
+    private static boolean matches(ShipSnapshot ship, ShipSnapshot other) {
+        return ship.cell() == other.cell()
+                && ship.direction() == other.direction()
+                && ship.speed() == other.speed()
+                && ship.coal() == other.coal()
+                && ship.freeTurns() == other.freeTurns()
+                && ship.passengers() == other.passengers();
+    }
+
+    private static final class Node {
+
+        private final GameSnapshot state;
+        /**
+         * The move leading to this node, null for a root
+         */
+        private final Move move;
+        private final boolean goal;
+        private final AtomicInteger visits = new AtomicInteger(), virtualLosses = new AtomicInteger();
+        /**
+         * The summed rewards of the team that moved into this node
+         */
+        private final DoubleAdder reward = new DoubleAdder();
+        private volatile Node[] children;
+
+        private Node(GameSnapshot state, Move move, boolean goal) {
+            this.state = state;
+            this.move = move;
+            this.goal = goal;
+        }
+
+        private Team getMovingTeam() {
+            return this.state.getCurrentTeam().getOpponent();
+        }
+
+    }
+
+}
@@ -6,8 +6,12 @@
 package de.teamgruen.sc.player.utilities;
 
 import de.teamgruen.sc.sdk.game.AdvanceInfo;
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.MoveIterator;
+import de.teamgruen.sc.sdk.game.TranspositionTable;
 import de.teamgruen.sc.sdk.game.Vector3;
 import de.teamgruen.sc.sdk.game.board.Board;
 import de.teamgruen.sc.sdk.game.board.Ship;
@@ -20,20 +24,185 @@ import de.teamgruen.sc.sdk.protocol.data.board.fields.Goal;
 import lombok.NonNull;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class MoveUtil {
 
+    /**
+     * The time the server grants for a move in milliseconds
+     */
+    public static final int SERVER_MOVE_TIME = 2000;
+    /**
+     * The default amount of following moves to look ahead, the lookahead used before the search was deepened iteratively
+     */
+    public static final int DEFAULT_MAX_DEPTH = 4;
+    /**
+     * The default size of the transposition table in MiB
+     */
+    public static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 8;
+    /**
+     * Move generation buffer per thread, reused for every generation so the lookahead only allocates the moves it evaluates.
+     */
+    private static final ThreadLocal<MoveBuffer> MOVE_BUFFER = ThreadLocal.withInitial(MoveBuffer::new);
+    /**
+     * Pool for the root move generation and the root move evaluation, null if both run sequentially
+     */
+    private static ForkJoinPool generationPool = null;
+    /**
+     * The amount of root move evaluations currently running on the search pool
+     */
+    private static final AtomicInteger runningEvaluations = new AtomicInteger();
+    private static double moveTimeFraction = 0.375;
+    private static int maxDepth = DEFAULT_MAX_DEPTH;
+    /**
+     * Scores of the lookahead shared by all root moves and depths of a search, null if disabled
+     */
+    private static TranspositionTable transpositionTable = TranspositionTable.ofMegabytes(DEFAULT_TRANSPOSITION_TABLE_SIZE);
+    /**
+     * Whether the players search their responses to the likely replies of the enemy during its turn
+     */
+    private static boolean pondering = false;
+
+    /**
+     * Sets the amount of threads used to generate the moves of the current turn and to evaluate their lookahead.
+     * The lookahead of a single root move always runs on one thread.
+     *
+     * @param parallelism the amount of threads, 1 to generate sequentially
+     * @throws IllegalArgumentException if the parallelism is less than 1
+     */
+    public static void setParallelism(int parallelism) {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Illegal parallelism: " + parallelism);
+
+        if(generationPool != null)
+            generationPool.shutdown();
+
+        generationPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public static int getParallelism() {
+        return generationPool == null ? 1 : generationPool.getParallelism();
+    }
+
+    /**
+     * @return the amount of root move evaluations currently running on the search pool
+     */
+    static int getRunningEvaluations() {
+        return runningEvaluations.get();
+    }
+
+    /**
+     * Sets the share of the server's move time used to search the next move.
+     *
+     * @param fraction the share of {@link #SERVER_MOVE_TIME}, greater than 0 and at most 1
+     * @throws IllegalArgumentException if the fraction is out of range
+     */
+    public static void setMoveTimeFraction(double fraction) {
+        if(!(fraction > 0 && fraction <= 1))
+            throw new IllegalArgumentException("Illegal move time fraction: " + fraction);
+
+        moveTimeFraction = fraction;
+    }
+
+    public static double getMoveTimeFraction() {
+        return moveTimeFraction;
+    }
+
+    /**
+     * @return the time to search the next move in milliseconds
+     */
+    public static int getMoveTime() {
+        return (int) (SERVER_MOVE_TIME * moveTimeFraction);
+    }
+
+    /**
+     * Sets the maximum amount of following moves the lookahead is deepened to.
+     *
+     * @param depth the maximum depth, 0 to only score the moves of the current turn
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public static void setMaxDepth(int depth) {
+        if(depth < 0)
+            throw new IllegalArgumentException("Illegal depth: " + depth);
+
+        maxDepth = depth;
+    }
+
+    public static int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Replaces the transposition table of the lookahead with an empty table of the given size.
+     *
+     * @param megabytes the size of the table in MiB, 0 to disable the table
+     * @throws IllegalArgumentException if the size is out of range
+     */
+    public static void setTranspositionTableSize(int megabytes) {
+        transpositionTable = megabytes == 0 ? null : TranspositionTable.ofMegabytes(megabytes);
+    }
+
+    /**
+     * @return the transposition table of the lookahead or null if it is disabled
+     */
+    public static TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Enables pondering for the game handlers created afterwards, see {@link Ponderer}.
+     *
+     * @param enabled whether to ponder during the enemy's turn
+     */
+    public static void setPondering(boolean enabled) {
+        pondering = enabled;
+    }
+
+    public static boolean isPondering() {
+        return pondering;
+    }
+
+    /**
+     * Returns the most efficient move for the current game state within the configured share of the server's move time,
+     * see {@link #setMoveTimeFraction(double)}.
+     *
+     * @param gameState the current game state
+     * @return the most efficient move
+     */
+    public static Optional<Move> getMostEfficientMove(@NonNull GameState gameState) {
+        return getMostEfficientMove(gameState, getMoveTime());
+    }
+
     /**
      * Returns the most efficient move for the current game state.
-     * The move is evaluated by its score and the scores of the next two moves.
+     * The moves are evaluated by their score and the scores of the following moves. The lookahead is deepened
+     * ply by ply up to the maximum depth and the best move of the deepest fully searched ply is returned,
+     * so the search stops at the timeout without mixing depths.
      *
      * @param gameState the current game state
+     * @param timeout the time to search in milliseconds, the root moves are always scored
      * @return the most efficient move
      */
     public static Optional<Move> getMostEfficientMove(@NonNull GameState gameState, int timeout) {
-        final long startMillis = System.currentTimeMillis();
+        return getMostEfficientMove(gameState, new AtomicLong(System.nanoTime() + timeout * 1_000_000L));
+    }
+
+    /**
+     * Returns the most efficient move for the current game state, see {@link #getMostEfficientMove(GameState, int)}.
+     * The deadline is read while searching, so another thread can cancel the search by moving it to the past,
+     * the best move of the deepest fully searched ply is returned in that case.
+     *
+     * @param gameState the current game state
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted
+     * @return the most efficient move
+     */
+    public static Optional<Move> getMostEfficientMove(@NonNull GameState gameState, @NonNull AtomicLong deadline) {
+        final int generation = newGeneration();
 
-        final Board board = gameState.getBoard();
         final Ship playerShip = gameState.getPlayerShip(), enemyShip = gameState.getEnemyShip();
         final int turn = gameState.getTurn();
         final Vector3 playerPosition = playerShip.getPosition(), enemyPosition = enemyShip.getPosition();
@@ -56,117 +225,200 @@ public class MoveUtil {
             moves.putAll(forcedMoves);
         }
 
-        final Map<Move, Direction> bestNextDirections = new HashMap<>();
-        final Map<Move, Integer> newFreeTurns = new HashMap<>();
-        final Move bestMove = moves
-                .entrySet()
+        // the root scores need no lookahead, so there always is a fully searched result
+        final RootEvaluation rootEvaluation = moves.entrySet()
                 .stream()
-                .filter(entry -> {
-                    // skip next move calculation if the time is running out
-                    if(System.currentTimeMillis() - startMillis > timeout)
-                        return true;
+                .max(Comparator.comparingDouble(Map.Entry::getValue))
+                .map(entry -> new RootEvaluation(entry.getKey(), entry.getValue(), null, 0))
+                .orElseThrow();
+        RootEvaluation bestEvaluation = rootEvaluation;
 
-                    final Move move = entry.getKey();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            try {
+                final RootEvaluation evaluation = evaluateRootMoves(gameState, moves, depth, deadline, generation);
 
-                    if(move.isGoal())
-                        return true;
+                // the ship will be stuck after every move, keep the result of the previous ply,
+                // which are the root scores if the ship is already stuck after the next move
+                if(evaluation == null)
+                    break;
+
+                bestEvaluation = evaluation;
+            } catch (DeadlineExceededException ignored) {
+                break;
+            }
+        }
 
-                    if(entry.getValue() < -3)
-                        return false;
+        final Move bestMove = bestEvaluation.move();
+        final Direction nextDirection = bestEvaluation.nextDirection();
 
-                    int turnCost = 0;
-                    Direction current = direction;
+        // turn to the best direction if the ship was not turned yet
+        if (nextDirection != null && nextDirection != bestMove.getEndDirection())
+            bestMove.getActions().add(ActionFactory.turn(bestMove.getEndDirection().rotateTo(nextDirection, bestEvaluation.freeTurns())));
 
-                    for (Action action : move.getActions()) {
-                        if (action instanceof Turn turnAction) {
-                            turnCost += current.costTo(turnAction.getDirection());
-                            current = turnAction.getDirection();
+        return Optional.of(bestMove);
+    }
+
+    /**
+     * Evaluates all root moves with the given lookahead depth. With a parallelism above 1 every root move is evaluated
+     * in its own task of the search pool, the evaluations are reduced in the root move order afterwards,
+     * so the result is the same as the one of the sequential evaluation.
+     * All tasks have finished when this method returns or throws, so the caller may change the game state afterwards.
+     *
+     * @param gameState the current game state
+     * @param moves the root moves and their scores
+     * @param depth the amount of following moves to look ahead
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted
+     * @param generation the transposition table generation of the search
+     * @return the best evaluation or null if the ship will be stuck after every move
+     * @throws DeadlineExceededException if the deadline passed before all root moves were evaluated
+     */
+    private static RootEvaluation evaluateRootMoves(GameState gameState, Map<Move, Double> moves, int depth, AtomicLong deadline, int generation) {
+        final List<Map.Entry<Move, Double>> entries = new ArrayList<>(moves.entrySet());
+        final RootEvaluation[] evaluations = new RootEvaluation[entries.size()];
+        final ForkJoinPool pool = generationPool;
+
+        if(pool == null || entries.size() < 2) {
+            for (int i = 0; i < entries.size(); i++)
+                evaluations[i] = evaluateRootMove(gameState, entries.get(i).getKey(), entries.get(i).getValue(), depth, deadline, generation);
+        } else {
+            final List<RecursiveAction> tasks = new ArrayList<>(entries.size());
+            final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+            for (int i = 0; i < entries.size(); i++) {
+                final int index = i;
+                final Map.Entry<Move, Double> entry = entries.get(i);
+
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        runningEvaluations.incrementAndGet();
+
+                        try {
+                            evaluations[index] = evaluateRootMove(gameState, entry.getKey(), entry.getValue(), depth, deadline, generation);
+                        } catch (RuntimeException ex) {
+                            failure.compareAndSet(null, ex);
+                        } finally {
+                            runningEvaluations.decrementAndGet();
                         }
                     }
+                });
+            }
+
+            // the tasks never complete exceptionally, so all of them are joined before a failure is rethrown
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+
+            if(failure.get() != null)
+                throw failure.get();
+        }
 
-                    final int leftFreeTurns = Math.max(0, freeTurns - turnCost);
+        RootEvaluation bestEvaluation = null;
 
-                    newFreeTurns.put(move, leftFreeTurns);
+        for (RootEvaluation evaluation : evaluations) {
+            if(evaluation != null && (bestEvaluation == null || evaluation.value() > bestEvaluation.value()))
+                bestEvaluation = evaluation;
+        }
 
-                    // determine the best next direction
+        return bestEvaluation;
+    }
+
+    /**
+     * Evaluates a root move by its score and the best following moves.
+     *
+     * @param gameState the current game state
+     * @param move the root move
+     * @param value the score of the root move
+     * @param depth the amount of following moves to look ahead
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted
+     * @param generation the transposition table generation of the search
+     * @return the evaluation of the move or null if the ship will be stuck after the move
+     * @throws DeadlineExceededException if the deadline passed
+     */
+    private static RootEvaluation evaluateRootMove(GameState gameState, Move move, double value, int depth, AtomicLong deadline, int generation) {
+        if(move.isGoal())
+            return new RootEvaluation(move, value, null, 0);
 
-                    Direction bestNextDirection = null;
-                    Map.Entry<Move, Double> bestNextEntry = null;
-                    int bestNextCoal = Integer.MAX_VALUE;
+        if(value < -3)
+            return null;
 
-                    for (int i = -leftFreeTurns; i <= leftFreeTurns; i++) {
-                        final Direction possibleDirection = current.rotate(i);
-                        final Move expandedMove = move.copy();
+        final Board board = gameState.getBoard();
+        final Ship playerShip = gameState.getPlayerShip(), enemyShip = gameState.getEnemyShip();
+        final int turn = gameState.getTurn(), coal = playerShip.getCoal();
 
-                        if(possibleDirection != current)
-                            expandedMove.turn(possibleDirection);
+        int turnCost = 0;
+        Direction current = playerShip.getDirection();
 
-                        final Map.Entry<Move, Double> currentEntry = getBestNextMove(
-                                gameState, turn,
-                                playerShip, enemyShip,
-                                null, coal, expandedMove
-                        );
+        for (Action action : move.getActions()) {
+            if (action instanceof Turn turnAction) {
+                turnCost += current.costTo(turnAction.getDirection());
+                current = turnAction.getDirection();
+            }
+        }
 
-                        if(currentEntry == null)
-                            continue;
+        final int leftFreeTurns = Math.max(0, playerShip.getFreeTurns() - turnCost);
 
-                        double currentScore = currentEntry.getValue() - Math.abs(i) * 0.125;
+        // determine the best next direction
 
-                        if((bestNextEntry != null && currentEntry.getValue() < bestNextEntry.getValue()))
-                            continue;
+        Direction bestNextDirection = null;
+        Map.Entry<Move, Double> bestNextEntry = null;
+        int bestNextCoal = Integer.MAX_VALUE;
 
-                        final Move currentMove = currentEntry.getKey();
-                        final boolean changedVelocity = currentMove.getTotalCost() == expandedMove.getTotalCost();
-                        final Action firstAction = currentMove.getActions().get(changedVelocity ? 0 : 1);
+        for (int i = -leftFreeTurns; i <= leftFreeTurns; i++) {
+            final Direction possibleDirection = current.rotate(i);
+            final Move expandedMove = move.copy();
 
-                        // skip if the ship turns back to the first direction
-                        if(firstAction instanceof Turn firstTurn && firstTurn.getDirection() == current)
-                            continue;
+            if(possibleDirection != current)
+                expandedMove.turn(possibleDirection);
 
-                        final int nextCoalCost = currentMove.getCoalCost(possibleDirection, move.getTotalCost(), 1);
+            final Map.Entry<Move, Double> currentEntry = getBestNextMove(
+                    gameState, turn,
+                    playerShip, enemyShip,
+                    null, playerShip.getPassengers(), coal, expandedMove,
+                    depth, deadline, generation
+            );
 
-                        if(board.getSegmentDistance(move.getEnemyEndPosition(), move.getEndPosition()) == 0)
-                            currentScore += possibleDirection.toFieldColumn() * 0.25;
+            if(currentEntry == null)
+                continue;
 
-                        if(bestNextEntry == null || currentScore > bestNextEntry.getValue() || nextCoalCost < bestNextCoal) {
-                            bestNextDirection = possibleDirection;
-                            bestNextEntry = currentEntry;
-                            bestNextCoal = nextCoalCost;
-                        }
-                    }
+            double currentScore = currentEntry.getValue() - Math.abs(i) * 0.125;
 
-                    if(bestNextDirection == null && move.getPushes() == 0)
-                        return false;
+            if((bestNextEntry != null && currentEntry.getValue() < bestNextEntry.getValue()))
+                continue;
 
-                    if(endsAtLastSegmentBorder(board, move, coal) && move.getSegmentIndex() < 7)
-                        entry.setValue(entry.getValue() + 2.5);
-                    else if(bestNextEntry != null) {
-                        entry.setValue(entry.getValue() + bestNextEntry.getValue() * 0.75);
+            final Move currentMove = currentEntry.getKey();
+            final boolean changedVelocity = currentMove.getTotalCost() == expandedMove.getTotalCost();
+            final Action firstAction = currentMove.getActions().get(changedVelocity ? 0 : 1);
 
-                        bestNextDirections.put(move, bestNextDirection);
-                    }
+            // skip if the ship turns back to the first direction
+            if(firstAction instanceof Turn firstTurn && firstTurn.getDirection() == current)
+                continue;
 
-                    return true;
-                })
-                .max(Comparator.comparingDouble(Map.Entry::getValue))
-                .map(Map.Entry::getKey)
-                .orElse(null);
+            final int nextCoalCost = currentMove.getCoalCost(possibleDirection, move.getTotalCost(), 1);
 
-        if(bestMove != null) {
-            // turn to the best direction if the ship was not turned yet
-            if (bestNextDirections.containsKey(bestMove)) {
-                final Direction nextDirection = bestNextDirections.get(bestMove);
-                final Direction endDirection = bestMove.getEndDirection();
+            if(board.getSegmentProgressDistance(Cell.of(move.getEnemyEndPosition()), Cell.of(move.getEndPosition())) == 0)
+                currentScore += possibleDirection.toFieldColumn() * 0.25;
 
-                if (nextDirection != endDirection)
-                    bestMove.getActions().add(ActionFactory.turn(endDirection.rotateTo(nextDirection, newFreeTurns.get(bestMove))));
+            if(bestNextEntry == null || currentScore > bestNextEntry.getValue() || nextCoalCost < bestNextCoal) {
+                bestNextDirection = possibleDirection;
+                bestNextEntry = currentEntry;
+                bestNextCoal = nextCoalCost;
             }
-
-            return Optional.of(bestMove);
         }
 
-        // loose intentionally if the ship will be stuck in the next 2 rounds
-        return moves.entrySet().stream().max(Comparator.comparingDouble(Map.Entry::getValue)).map(Map.Entry::getKey);
+        if(bestNextDirection == null && move.getPushes() == 0)
+            return null;
+
+        if(endsAtLastSegmentBorder(board, move, coal) && move.getSegmentIndex() < 7)
+            return new RootEvaluation(move, value + 2.5, null, 0);
+
+        if(bestNextEntry != null)
+            return new RootEvaluation(move, value + bestNextEntry.getValue() * 0.75, bestNextDirection, leftFreeTurns);
+
+        return new RootEvaluation(move, value, null, 0);
     }
 
     /**
@@ -241,7 +493,7 @@ public class MoveUtil {
 
         int columnPoints = 0;
 
-        if(move.getEnemyEndPosition() != null && board.getSegmentDistance(move.getEnemyEndPosition(), move.getEndPosition()) == 0)
+        if(move.getEnemyEndPosition() != null && board.getSegmentProgressDistance(Cell.of(move.getEnemyEndPosition()), Cell.of(move.getEndPosition())) == 0)
             columnPoints = move.getEndDirection().toFieldColumn();
 
         return (move.isGoal() ? 100 : (preventsGoal && (coalBefore - coalCost > 0) ? 101.25 : 0))
@@ -280,7 +532,7 @@ public class MoveUtil {
         final Board board = gameState.getBoard();
         final boolean isEnemyAhead = enemyPosition != null && isEnemyAhead(board, position, direction, enemyShip, enemyPosition);
         final boolean hasEnemyMorePoints = enemyShip.getPassengers() >= ship.getPassengers()
-                && board.getSegmentDistance(ship.getPosition(), enemyShip.getPosition()) >= 1.25;
+                && board.getSegmentProgressDistance(Cell.of(ship.getPosition()), Cell.of(enemyShip.getPosition())) >= 5;
         final double segmentDirectionCost = board.getSegmentDirectionCost(position, direction);
         final int accelerationCoal = getAccelerationCoal(
                 board.getSegmentIndex(position),
@@ -290,31 +542,42 @@ public class MoveUtil {
                 board.canCollectPassengerInNextRound(ship, position, enemyPosition) && passengers <= enemyShip.getPassengers()
         );
 
-        final Set<Move> moves = board.getMoves(ship, position, direction, enemyShip, enemyPosition,
+        final MoveBuffer buffer = MOVE_BUFFER.get();
+        final int moveCount = board.getMoves(buffer, ship, Cell.of(position), direction, enemyShip, Cell.of(enemyPosition),
                 speed, freeTurns, Math.min(coal, (segmentDirectionCost >= 2 ? 2 : 1) + accelerationCoal + extraCoal),
-                forceMultiplePushes);
+                forceMultiplePushes, turn == gameState.getTurn() ? generationPool : null);
 
         // if no moves are possible, try moves that require more coal
-        if(moves.isEmpty() && extraCoal < coal - 1) {
+        if(moveCount == 0 && extraCoal < coal - 1) {
             return getPossibleMoves(gameState, turn, ship, position, direction, enemyShip, enemyPosition,
                     passengers, speed, freeTurns, coal, extraCoal + 1, forceMultiplePushes);
         }
 
-        moves.forEach(move -> addAcceleration(speed, move));
+        // keep the heuristic order, so callers running out of time have seen the most promising moves first
+        final Map<Move, Double> moves = new LinkedHashMap<>();
+        final MoveIterator iterator = buffer.iterator();
+
+        while (iterator.hasNext()) {
+            final Move move = iterator.next();
+
+            addAcceleration(speed, move);
+
+            moves.put(move, evaluateMove(
+                    gameState,
+                    turn,
+                    position,
+                    direction,
+                    enemyShip,
+                    enemyPosition,
+                    isEnemyAhead,
+                    passengers,
+                    coal,
+                    coal - move.getCoalCost(direction, speed, freeTurns),
+                    move
+            ));
+        }
 
-        return moves.stream().collect(HashMap::new, (map, move) -> map.put(move, evaluateMove(
-                gameState,
-                turn,
-                position,
-                direction,
-                enemyShip,
-                enemyPosition,
-                isEnemyAhead,
-                passengers,
-                coal,
-                coal - move.getCoalCost(direction, speed, freeTurns),
-                move
-        )), HashMap::putAll);
+        return moves;
     }
 
     /**
@@ -331,9 +594,34 @@ public class MoveUtil {
                                                           @NonNull Ship ship, @NonNull Ship enemyShip,
                                                           Move previousMove, int coal,
                                                           @NonNull Move move) {
-        final double fullSegmentDistance = getMoveSegmentDistance(gameState.getBoard(), ship.getPosition(), ship.getDirection(), move);
+        final boolean hasPreviousMove = previousMove != null;
+
+        return getBestNextMove(
+                gameState, turn, ship, enemyShip,
+                previousMove, ship.getPassengers() + (hasPreviousMove ? previousMove.getPassengers() : 0), coal, move,
+                hasPreviousMove ? 1 : 2, null, newGeneration()
+        );
+    }
 
-        if(fullSegmentDistance < -1.0)
+    /**
+     * @param passengersBefore the passengers of the ship before the move
+     * @param depth the amount of following moves to look ahead, at least 1
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted, null to search without a deadline
+     * @param generation the transposition table generation of the search
+     * @return the best next move for the given move
+     * @throws DeadlineExceededException if the deadline passed
+     */
+    private static Map.Entry<Move, Double> getBestNextMove(GameState gameState, int turn,
+                                                           Ship ship, Ship enemyShip,
+                                                           Move previousMove, int passengersBefore, int coal,
+                                                           Move move,
+                                                           int depth, AtomicLong deadline, int generation) {
+        if(deadline != null && System.nanoTime() - deadline.get() > 0)
+            throw DeadlineExceededException.INSTANCE;
+
+        final int fullSegmentProgress = getMoveSegmentProgress(gameState.getBoard(), ship.getPosition(), ship.getDirection(), move);
+
+        if(fullSegmentProgress < -16)
             return null;
 
         final int newTurn = turn + 1;
@@ -344,7 +632,7 @@ public class MoveUtil {
                 hasPreviousMove ? 1 : ship.getFreeTurns()
         );
         final int remainingCoal = coal - coalCost;
-        final int passengers = ship.getPassengers() + (hasPreviousMove ? previousMove.getPassengers() : 0) + move.getPassengers();
+        final int passengers = passengersBefore + move.getPassengers();
         final Vector3 enemyPosition = hasPreviousMove ? null : move.getEnemyEndPosition();
 
         Map<Move, Double> moves = getPossibleMoves(
@@ -367,12 +655,14 @@ public class MoveUtil {
         }
 
         final boolean shouldCheckForPassengers = gameState.getTurn() + 1 == turn
-                && fullSegmentDistance > 0.75
+                && fullSegmentProgress > 12
                 && passengers < 2
                 && move.getTotalCost() <= 2
                 && move.getPassengers() == 0;
 
-        if(!hasPreviousMove || shouldCheckForPassengers) {
+        if(depth > 1 || shouldCheckForPassengers) {
+            final int nextDepth = Math.max(1, depth - 1);
+
             moves.entrySet().removeIf(entry -> {
                 if(entry.getValue() < -3)
                     return true;
@@ -382,17 +672,18 @@ public class MoveUtil {
                 if (endsAtLastSegmentBorder(gameState.getBoard(), nextMove, remainingCoal))
                     entry.setValue(entry.getValue() + 2.5);
                 else {
-                    final Map.Entry<Move, Double> bestNextMove = getBestNextMove(gameState, newTurn, ship, enemyShip, move, remainingCoal, nextMove);
+                    final double bestNextScore = getBestNextScore(gameState, newTurn, ship, enemyShip,
+                            move, passengers, remainingCoal, nextMove, nextDepth, deadline, generation);
 
-                    if (bestNextMove == null)
+                    if (Double.isNaN(bestNextScore))
                         return true;
 
-                    entry.setValue(entry.getValue() + bestNextMove.getValue() * 0.5);
+                    entry.setValue(entry.getValue() + bestNextScore * 0.5);
                 }
 
                 return false;
             });
-        } else
+        } else if(hasPreviousMove)
             moves.entrySet().removeIf(entry -> entry.getKey().getEndPosition().equals(previousMove.getEndPosition()) && entry.getKey().getPassengers() > 0);
 
         return moves.entrySet().stream()
@@ -400,6 +691,74 @@ public class MoveUtil {
                 .orElse(null);
     }
 
+    /**
+     * Scores the best next move of a move following the given previous move, the score is looked up in the
+     * transposition table first. The depth is part of the key, since the lookahead scores the same state differently
+     * at another depth, so the table never changes the result of the search.
+     *
+     * @param previousMove the previous move
+     * @param passengersBefore the passengers of the ship before the move
+     * @param depth the amount of following moves to look ahead, at least 1
+     * @param deadline the {@link System#nanoTime()} at which the search is aborted, null to search without a deadline
+     * @param generation the transposition table generation of the search
+     * @return the score of the best next move or {@link Double#NaN} if there is none
+     * @throws DeadlineExceededException if the deadline passed
+     */
+    private static double getBestNextScore(GameState gameState, int turn,
+                                           Ship ship, Ship enemyShip,
+                                           Move previousMove, int passengersBefore, int coal,
+                                           Move move,
+                                           int depth, AtomicLong deadline, int generation) {
+        final TranspositionTable table = transpositionTable;
+        final long key = table == null ? 0 : transpositionKey(gameState, turn, previousMove, passengersBefore, coal, move, depth);
+
+        if(table != null) {
+            final TranspositionTable.Entry entry = table.probe(key, generation, depth);
+
+            if(entry != null)
+                return entry.score();
+        }
+
+        final Map.Entry<Move, Double> bestNextMove = getBestNextMove(gameState, turn, ship, enemyShip,
+                previousMove, passengersBefore, coal, move, depth, deadline, generation);
+        final double score = bestNextMove == null ? Double.NaN : bestNextMove.getValue();
+
+        if(table != null)
+            table.store(key, generation, depth, score, bestNextMove == null ? 0 : MoveBuffer.pack(bestNextMove.getKey().getActions()));
+
+        return score;
+    }
+
+    /**
+     * Packs everything the lookahead of a move following a previous move depends on, besides the fixed inputs
+     * of the search: the end state of the move, the position of the previous move, whose passenger
+     * must not be collected twice, and the depth.
+     *
+     * @return the key of the move in the transposition table
+     */
+    private static long transpositionKey(GameState gameState, int turn, Move previousMove, int passengersBefore, int coal, Move move, int depth) {
+        final int remainingCoal = coal - move.getCoalCost(previousMove.getEndDirection(), previousMove.getTotalCost(), 1);
+
+        return Cell.of(move.getEndPosition())
+                | (long) (Cell.of(previousMove.getEndPosition()) + 1) << 13
+                | (long) move.getEndDirection().ordinal() << 26
+                | (long) (move.getTotalCost() & 0xF) << 29
+                | (long) (remainingCoal & 0xF) << 33
+                | (long) (passengersBefore & 0x7) << 37
+                | (long) (move.getPassengers() & 0x3) << 40
+                | (long) ((turn - gameState.getTurn()) & 0xFF) << 42
+                | (long) (depth & 0xFF) << 50;
+    }
+
+    /**
+     * @return a new generation of the transposition table, 0 if it is disabled
+     */
+    private static int newGeneration() {
+        final TranspositionTable table = transpositionTable;
+
+        return table == null ? 0 : table.newGeneration();
+    }
+
     /**
      * @param board the game board
      * @param move the move to evaluate
@@ -409,7 +768,7 @@ public class MoveUtil {
     public static boolean endsAtLastSegmentBorder(@NonNull Board board, @NonNull Move move, int coal) {
         final boolean willNextSegmentBeGeneratedInRange = Arrays.stream(Direction.values())
                 .filter(nextDirection -> move.getEndDirection().costTo(nextDirection) <= 1 + coal)
-                .anyMatch(nextDirection -> board.getNextFieldsPositions().contains(move.getEndPosition().copy().add(nextDirection.toVector3())));
+                .anyMatch(nextDirection -> board.getNextFieldsPositions().contains(move.getEndPosition().copy().add(nextDirection)));
 
         return move.isGoal() || willNextSegmentBeGeneratedInRange;
     }
@@ -454,7 +813,7 @@ public class MoveUtil {
         final Ship playerShip = gameState.getPlayerShip(), enemyShip = gameState.getEnemyShip();
         final boolean isEnemyAhead = isEnemyAhead(board, playerShip.getPosition(), playerShip.getDirection(), enemyShip, enemyShip.getPosition());
         final boolean hasEnemyMorePoints = enemyShip.getPassengers() >= playerShip.getPassengers()
-                && board.getSegmentDistance(playerShip.getPosition(), enemyShip.getPosition()) >= 1.25;
+                && board.getSegmentProgressDistance(Cell.of(playerShip.getPosition()), Cell.of(enemyShip.getPosition())) >= 5;
         final Move move = new Move(path.get(0), enemyShip.getPosition(), playerShip.getDirection());
 
         final int maxIndex = path.size() - 1;
@@ -517,7 +876,7 @@ public class MoveUtil {
                 final Vector3 nextPosition = path.get(pathIndex);
 
                 // stop if the direction changes
-                if(!nextPosition.copy().subtract(lastPosition).equals(direction.toVector3()))
+                if(!nextPosition.equals(lastPosition.copy().add(direction)))
                     break;
 
                 final boolean isCounterCurrent = board.isCounterCurrent(nextPosition);
@@ -540,7 +899,7 @@ public class MoveUtil {
                     break;
 
                 if(bestPushDirection != null)
-                    enemyPosition.add(bestPushDirection.toVector3());
+                    enemyPosition.add(bestPushDirection);
 
                 distance++;
                 forwardCost += moveCost;
@@ -639,11 +998,25 @@ public class MoveUtil {
      * @return the distance between the ship and the end of the move
      */
     public static double getMoveSegmentDistance(Board board, Vector3 initialPosition, Direction initialDirection, Move move) {
-        final int deltaSegmentIndex = move.getSegmentIndex() - board.getSegmentIndex(initialPosition);
-        final double deltaSegmentColumn = (move.getSegmentColumn() - board.getSegmentColumn(initialPosition)) / 4d;
-        final double deltaFieldColumn = (move.getEndDirection().toFieldColumn() - initialDirection.toFieldColumn()) / 16d;
+        return getMoveSegmentProgress(board, initialPosition, initialDirection, move) / 16d;
+    }
 
-        return deltaSegmentIndex + deltaSegmentColumn + deltaFieldColumn;
+    /**
+     * Fixed-point variant of {@link #getMoveSegmentDistance(Board, Vector3, Direction, Move)}.
+     *
+     * @param board the game board
+     * @param initialPosition the ship's initial position
+     * @param initialDirection the ship's initial direction
+     * @param move the move to evaluate
+     * @return the distance between the ship and the end of the move in sixteenths of a segment
+     */
+    public static int getMoveSegmentProgress(Board board, Vector3 initialPosition, Direction initialDirection, Move move) {
+        final int initialCell = Cell.of(initialPosition);
+        final int deltaSegmentIndex = move.getSegmentIndex() - board.getSegmentIndex(initialCell);
+        final int deltaSegmentColumn = move.getSegmentColumn() - board.getSegmentColumn(initialCell);
+        final int deltaFieldColumn = move.getEndDirection().toFieldColumn() - initialDirection.toFieldColumn();
+
+        return deltaSegmentIndex * 16 + deltaSegmentColumn * 4 + deltaFieldColumn;
     }
 
     /**
@@ -657,10 +1030,19 @@ public class MoveUtil {
     public static boolean isEnemyAhead(@NonNull Board board,
                                        @NonNull Vector3 playerPosition, @NonNull Direction playerDirection,
                                        @NonNull Ship enemyShip, @NonNull Vector3 enemyPosition) {
-        final double segmentDistance = board.getSegmentDistance(playerPosition, enemyPosition);
+        final int segmentProgress = board.getSegmentProgressDistance(Cell.of(playerPosition), Cell.of(enemyPosition));
         final int requiredTurns = board.getSegmentDirectionCost(playerPosition, playerDirection);
 
-        return segmentDistance >= (2.75 - requiredTurns * 0.25 - (enemyShip.getSpeed() / 3.5d));
+        return segmentProgress / 4d >= (2.75 - requiredTurns * 0.25 - (enemyShip.getSpeed() / 3.5d));
+    }
+
+    /**
+     * @param move the root move
+     * @param value the score of the move including the lookahead
+     * @param nextDirection the direction to turn to for the best next move or null to keep the end direction
+     * @param freeTurns the free turns left after the move
+     */
+    private record RootEvaluation(Move move, double value, Direction nextDirection, int freeTurns) {
     }
 
-}
\ No newline at end of file
+}
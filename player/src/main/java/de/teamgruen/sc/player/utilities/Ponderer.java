@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.MoveIterator;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches the player's responses to the likely replies of the enemy while the enemy is moving.
+ * The replies are predicted by the heuristic order of {@link MoveBuffer#iterator()} and searched one after another
+ * on a background thread, each with the full move time.
+ * <p>
+ * The background thread applies the predicted replies to the given game state and undoes them afterwards,
+ * so the game state must not be used by other threads until {@link #stop()} returned. The {@link Search} must not
+ * leave tasks running when it returns, otherwise they could still read the state while it is restored,
+ * {@link MoveUtil#getMostEfficientMove(GameState, AtomicLong)} joins all of its pool tasks for this reason.
+ * <p>
+ * A pondered move is only reused if the real state is the predicted one, including the board and the turn,
+ * so it is the same move a search started with the real state would have found.
+ */
+public class Ponderer {
+
+    /**
+     * The amount of heuristically best replies of the enemy to search a response for
+     */
+    public static final int PREDICTED_REPLIES = 3;
+
+    private final Search search;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "PonderThread");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+    /**
+     * The deadline of the running search, moved to the past to cancel it
+     */
+    private final AtomicLong deadline = new AtomicLong();
+    /**
+     * The responses of all fully searched predictions, only accessed by the background thread while it is pondering
+     */
+    private final Map<Prediction, Move> responses = new HashMap<>();
+    private volatile boolean cancelled;
+    private Future<?> task;
+
+    /**
+     * @param search the search of the player's move, it has to return once the deadline passed
+     */
+    public Ponderer(@NonNull Search search) {
+        this.search = search;
+    }
+
+    /**
+     * Starts pondering in the background, a previous pondering is stopped and its responses are discarded.
+     *
+     * @param gameState the current game state, the enemy has to move
+     * @param timeout the time to search the response to each reply in milliseconds
+     */
+    public void start(@NonNull GameState gameState, int timeout) {
+        this.stop();
+        this.responses.clear();
+        this.cancelled = false;
+        this.task = this.executor.submit(() -> this.ponder(gameState, timeout));
+    }
+
+    /**
+     * Cancels the running search and waits until the game state is restored, the responses of the fully searched
+     * predictions are kept.
+     */
+    public void stop() {
+        if(this.task == null)
+            return;
+
+        // the background thread checks the flag after setting a new deadline, so no search starts afterwards
+        this.cancelled = true;
+        this.deadline.set(System.nanoTime() - 1);
+
+        try {
+            this.task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Pondering failed", ex.getCause());
+        } finally {
+            this.task = null;
+        }
+    }
+
+    /**
+     * Stops pondering and looks up the response to the actual reply of the enemy.
+     * All responses are discarded afterwards.
+     *
+     * @param gameState the current game state, the player has to move
+     * @return the pondered move or an empty optional if the reply was not predicted or not fully searched
+     */
+    public Optional<Move> take(@NonNull GameState gameState) {
+        this.stop();
+
+        final Move move = this.responses.get(Prediction.of(gameState));
+        this.responses.clear();
+
+        return Optional.ofNullable(move);
+    }
+
+    /**
+     * @return whether the background thread is still searching
+     */
+    public boolean isPondering() {
+        final Future<?> task = this.task;
+
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * Stops pondering and terminates the background thread.
+     */
+    public void shutdown() {
+        this.stop();
+        this.executor.shutdown();
+    }
+
+    private void ponder(GameState gameState, int timeout) {
+        final Team enemyTeam = gameState.getCurrentTeam(), playerTeam = gameState.getPlayerTeam();
+        final int turn = gameState.getTurn();
+        final MoveBuffer buffer = new MoveBuffer();
+        final int moveCount = gameState.getMoves(buffer, enemyTeam);
+        final MoveIterator iterator = buffer.iterator();
+
+        for (int i = 0; i < Math.min(moveCount, PREDICTED_REPLIES); i++) {
+            final int index = iterator.nextIndex();
+
+            // the game ends with the reply, there is nothing to respond to
+            if(buffer.isGoal(index))
+                continue;
+
+            this.deadline.set(System.nanoTime() + timeout * 1_000_000L);
+
+            if(this.cancelled)
+                return;
+
+            gameState.apply(enemyTeam, buffer.toMove(index));
+            gameState.setTurn(turn + 1);
+            gameState.setCurrentTeam(playerTeam);
+
+            try {
+                final Optional<Move> move = this.search.search(gameState, this.deadline);
+
+                // a cancelled search did not use its full time
+                if(!this.cancelled)
+                    move.ifPresent(response -> this.responses.put(Prediction.of(gameState), response));
+            } finally {
+                gameState.undo();
+                gameState.setTurn(turn);
+                gameState.setCurrentTeam(enemyTeam);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Search {
+
+        /**
+         * Searches the player's move, all threads working on the game state have finished when the search returns.
+         *
+         * @param gameState the game state to search, the player has to move
+         * @param deadline the {@link System#nanoTime()} at which the search has to return
+         * @return the best move or an empty optional if there is none
+         */
+        Optional<Move> search(GameState gameState, AtomicLong deadline);
+
+    }
+
+    /**
+     * @param hash the {@link GameState#getHash()} of the state
+     * @param turn the turn of the state
+     * @param segments the amount of revealed segments, which the hash does not cover
+     */
+    private record Prediction(long hash, int turn, int segments) {
+
+        private static Prediction of(GameState gameState) {
+            return new Prediction(gameState.getHash(), gameState.getTurn(), gameState.getBoard().getSegments().size());
+        }
+
+    }
+
+}
@@ -5,8 +5,10 @@
 
 package de.teamgruen.sc.player.utilities.paths;
 
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Vector3;
+import de.teamgruen.sc.sdk.game.board.Board;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
 import lombok.NonNull;
 import lombok.Setter;
@@ -27,42 +29,48 @@ public class PathFinder {
      *         or null if no path was found
      */
     public static List<Vector3> findPath(@NonNull Direction direction, @NonNull Vector3 start, @NonNull Vector3 end) {
-        PathNode currentNode = new PathNode(start);
-
-        final Map<Vector3, PathNode> allNodes = new HashMap<>();
+        final Board board = gameState.getBoard();
+        final int endCell = Cell.of(end);
+        final PathNode[] allNodes = new PathNode[Cell.COUNT];
         final Queue<PathNode> frontier = new PriorityQueue<>();
+
+        PathNode currentNode = new PathNode(start);
         frontier.add(currentNode);
 
         while(!frontier.isEmpty()) {
             currentNode = frontier.poll();
 
-            final Vector3 currentPosition = currentNode.getPosition();
+            final int currentCell = currentNode.getCell();
 
             // early exit if the end position was reached
-            if (currentPosition.equals(end))
+            if (currentCell == endCell)
                 return reconstructPath(currentNode);
 
             final Direction currentDirection = currentNode.getDirection().orElse(direction);
-            final boolean wasCounterCurrent = gameState.getBoard().isCounterCurrent(currentPosition);
+            final boolean wasCounterCurrent = board.isCounterCurrent(currentCell);
             final int gCost = currentNode.getGraphCost();
             final int turnCost = currentNode.getTurnCost();
 
-            for (Vector3 neighbour : getNeighbours(currentPosition)) {
-                final PathNode neighbourNode = allNodes.getOrDefault(neighbour, new PathNode(neighbour));
-                final Direction neighbourDirection = Direction.fromVector3(neighbour.copy().subtract(currentPosition));
+            for (Direction neighbourDirection : Direction.values()) {
+                final int neighbour = Cell.add(currentCell, neighbourDirection);
+
+                if (board.isBlocked(neighbour))
+                    continue;
 
-                final boolean isCounterCurrent = gameState.getBoard().isCounterCurrent(neighbour);
+                final PathNode knownNode = allNodes[neighbour];
+                final boolean isCounterCurrent = board.isCounterCurrent(neighbour);
                 final int newGCost = gCost + ((!wasCounterCurrent || currentDirection != neighbourDirection) && isCounterCurrent ? 2 : 1);
                 final int newTurnCost = turnCost + currentDirection.costTo(neighbourDirection);
 
-                if(!allNodes.containsKey(neighbour) || newGCost < neighbourNode.getGraphCost() || newTurnCost < neighbourNode.getTurnCost()) {
+                if(knownNode == null || newGCost < knownNode.getGraphCost() || newTurnCost < knownNode.getTurnCost()) {
+                    final PathNode neighbourNode = knownNode == null ? new PathNode(Cell.toVector3(neighbour)) : knownNode;
                     neighbourNode.setPreviousNode(currentNode);
                     neighbourNode.setGraphCost(newGCost);
-                    neighbourNode.setHeuristicCost(getEstimatedPathCost(neighbour, end));
+                    neighbourNode.setHeuristicCost(Cell.distance(neighbour, endCell));
                     neighbourNode.setTurnCost(newTurnCost);
 
                     frontier.add(neighbourNode);
-                    allNodes.put(neighbour, neighbourNode);
+                    allNodes[neighbour] = neighbourNode;
                 }
             }
         }
@@ -109,11 +117,13 @@ public class PathFinder {
     static List<Vector3> getNeighbours(@NonNull Vector3 position) {
         final List<Vector3> neighbours = new ArrayList<>();
 
+        final int cell = Cell.of(position);
+
         for (Direction direction : Direction.values()) {
-            final Vector3 neighbourPosition = position.copy().add(direction.toVector3());
+            final int neighbour = Cell.add(cell, direction);
 
-            if (!gameState.getBoard().isBlocked(neighbourPosition))
-                neighbours.add(neighbourPosition);
+            if (!gameState.getBoard().isBlocked(neighbour))
+                neighbours.add(Cell.toVector3(neighbour));
         }
 
         return neighbours;
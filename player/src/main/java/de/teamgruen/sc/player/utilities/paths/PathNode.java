@@ -5,21 +5,31 @@
 
 package de.teamgruen.sc.player.utilities.paths;
 
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.Vector3;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
 
 import java.util.Optional;
 
 @Data
-@RequiredArgsConstructor
 public class PathNode implements Comparable<PathNode> {
 
     private final Vector3 position;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final int cell;
     private PathNode previousNode = null;
     private int graphCost = 0, heuristicCost = 0, turnCost = 0;
 
+    public PathNode(@NonNull Vector3 position) {
+        this.position = position;
+        this.cell = Cell.of(position);
+    }
+
     public int getTotalCost() {
         return this.graphCost + this.heuristicCost + this.turnCost;
     }
@@ -28,7 +38,7 @@ public class PathNode implements Comparable<PathNode> {
         if (this.previousNode == null)
             return Optional.empty();
 
-        return Optional.of(Direction.fromVector3(this.position.copy().subtract(this.previousNode.getPosition())));
+        return Optional.ofNullable(Cell.directionTo(this.previousNode.getCell(), this.cell));
     }
 
     @Override
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.ExampleGameState;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.TranspositionTable;
+import de.teamgruen.sc.sdk.game.Vector3;
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaSearchTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        this.gameState = new ExampleGameState();
+    }
+
+    @Test
+    public void testSearch() {
+        final long hash = this.gameState.getHash();
+        final Vector3 position = this.gameState.getPlayerShip().getPosition().copy();
+        final AlphaBetaSearch search = new AlphaBetaSearch(this.gameState, new TranspositionTable(16));
+        final Optional<Move> move = search.search(60_000, 3);
+
+        assertTrue(move.isPresent());
+        assertEquals(3, search.getDepth());
+        assertTrue(search.getNodes() > 0);
+        assertEquals(hash, this.gameState.getHash());
+        assertEquals(position, this.gameState.getPlayerShip().getPosition());
+    }
+
+    @Test
+    public void testSearch_TranspositionTable() {
+        final Optional<Move> expectedMove = new AlphaBetaSearch(this.gameState, null).search(60_000, 3);
+        final AlphaBetaSearch search = new AlphaBetaSearch(new ExampleGameState(), new TranspositionTable(16));
+
+        assertEquals(expectedMove, search.search(60_000, 3));
+    }
+
+    @Test
+    public void testSearch_Goal() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        playerShip.setPosition(new Vector3(-5, 9, -4));
+        playerShip.setDirection(Direction.DOWN_RIGHT);
+        playerShip.setPassengers(2);
+        playerShip.setSpeed(3);
+        playerShip.setCoal(0);
+        this.gameState.rehash();
+
+        final AlphaBetaSearch search = new AlphaBetaSearch(this.gameState, null);
+        final Optional<Move> move = search.search(60_000, 4);
+
+        assertTrue(move.isPresent());
+        assertTrue(move.get().isGoal());
+        assertEquals(1, search.getDepth());
+        assertTrue(search.getScore() >= AlphaBetaSearch.WIN_SCORE - AlphaBetaSearch.MAX_DEPTH);
+    }
+
+    @Test
+    public void testSearch_Timeout() {
+        final AlphaBetaSearch search = new AlphaBetaSearch(this.gameState, null);
+
+        assertTrue(search.search(-1, AlphaBetaSearch.MAX_DEPTH).isPresent());
+        assertEquals(1, search.getDepth());
+    }
+
+    @Test
+    public void testSearch_InvalidDepth() {
+        final AlphaBetaSearch search = new AlphaBetaSearch(this.gameState, null);
+
+        assertThrows(IllegalArgumentException.class, () -> search.search(500, 0));
+        assertThrows(IllegalArgumentException.class, () -> search.search(500, AlphaBetaSearch.MAX_DEPTH + 1));
+    }
+
+    @Test
+    public void testEvaluate() {
+        final AlphaBetaSearch search = new AlphaBetaSearch(this.gameState, null);
+
+        assertEquals(search.evaluate(Team.ONE), -search.evaluate(Team.TWO), 1e-9);
+    }
+
+    @Test
+    public void testEvaluateShip_Passengers() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final double score = AlphaBetaSearch.evaluateShip(this.gameState.getBoard(), playerShip);
+
+        playerShip.setPassengers(playerShip.getPassengers() + 1);
+
+        assertTrue(AlphaBetaSearch.evaluateShip(this.gameState.getBoard(), playerShip) > score);
+    }
+
+}
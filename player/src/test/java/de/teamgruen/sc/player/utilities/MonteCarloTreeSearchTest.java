@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.ExampleGameState;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.Vector3;
+import de.teamgruen.sc.sdk.game.board.Board;
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloTreeSearchTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        this.gameState = new ExampleGameState();
+    }
+
+    @Test
+    public void testSearch() {
+        final long hash = this.gameState.getHash();
+        final Vector3 position = this.gameState.getPlayerShip().getPosition().copy();
+        final MonteCarloTreeSearch search = new MonteCarloTreeSearch(1);
+        final Optional<Move> move = search.search(this.gameState, 100);
+
+        assertTrue(move.isPresent());
+        assertTrue(search.getIterations() > 0);
+        assertEquals(0, search.getReusedVisits());
+        assertEquals(hash, this.gameState.getHash());
+        assertEquals(position, this.gameState.getPlayerShip().getPosition());
+    }
+
+    @Test
+    public void testSearch_Parallel() {
+        final MonteCarloTreeSearch search = new MonteCarloTreeSearch(2);
+
+        assertTrue(search.search(this.gameState, 100).isPresent());
+        assertTrue(search.getIterations() > 0);
+    }
+
+    @Test
+    public void testSearch_ReusesTree() {
+        final MonteCarloTreeSearch search = new MonteCarloTreeSearch(1);
+        final Move move = search.search(this.gameState, 200).orElseThrow();
+        final MoveBuffer buffer = new MoveBuffer();
+
+        this.gameState.apply(move);
+        this.gameState.setCurrentTeam(Team.TWO);
+        this.gameState.getMoves(buffer, Team.TWO);
+        this.gameState.apply(Team.TWO, buffer.toMove(buffer.iterator().nextIndex()));
+        this.gameState.setCurrentTeam(Team.ONE);
+
+        assertTrue(search.search(this.gameState, 50).isPresent());
+        assertTrue(search.getReusedVisits() > 0);
+    }
+
+    @Test
+    public void testSearch_DropsTreeOnBoardChange() {
+        final MonteCarloTreeSearch search = new MonteCarloTreeSearch(1);
+        final Move move = search.search(this.gameState, 200).orElseThrow();
+        final MoveBuffer buffer = new MoveBuffer();
+        final Board board = this.gameState.getBoard();
+
+        this.gameState.apply(move);
+        this.gameState.setCurrentTeam(Team.TWO);
+        this.gameState.getMoves(buffer, Team.TWO);
+        this.gameState.apply(Team.TWO, buffer.toMove(buffer.iterator().nextIndex()));
+        this.gameState.setCurrentTeam(Team.ONE);
+
+        // a memento changed the passengers of the shared board
+        final int cell = board.getPassengerCells().get(0);
+        final int passengers = FieldCode.getPassengers(board.getFieldCode(cell));
+        board.setPassengers(cell, passengers == 0 ? 1 : passengers - 1);
+
+        assertTrue(search.search(this.gameState, 50).isPresent());
+        assertEquals(0, search.getReusedVisits());
+    }
+
+    @Test
+    public void testSearch_Goal() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        playerShip.setPosition(new Vector3(-5, 9, -4));
+        playerShip.setDirection(Direction.DOWN_RIGHT);
+        playerShip.setPassengers(2);
+        playerShip.setSpeed(3);
+        playerShip.setCoal(0);
+        this.gameState.rehash();
+
+        final Optional<Move> move = new MonteCarloTreeSearch(1).search(this.gameState, 100);
+
+        assertTrue(move.isPresent());
+        assertTrue(move.get().isGoal());
+    }
+
+    @Test
+    public void testConstructor_InvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloTreeSearch(0));
+    }
+
+}
@@ -8,6 +8,7 @@ package de.teamgruen.sc.player.utilities;
 import de.teamgruen.sc.sdk.game.ExampleGameState;
 import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.TranspositionTable;
 import de.teamgruen.sc.sdk.game.Vector3;
 import de.teamgruen.sc.sdk.game.board.Ship;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
@@ -47,6 +48,142 @@ public class MoveUtilTest {
         assertEquals(expectedActions, actualMove.get().getActions());
     }
 
+    @Test
+    public void testGetMostEfficientMove_Parallel() {
+        this.gameState.getPlayerShip().setCoal(0);
+
+        final Optional<Move> expectedMove = MoveUtil.getMostEfficientMove(this.gameState, 500);
+
+        try {
+            MoveUtil.setParallelism(4);
+
+            assertEquals(4, MoveUtil.getParallelism());
+            assertEquals(expectedMove, MoveUtil.getMostEfficientMove(this.gameState, 500));
+        } finally {
+            MoveUtil.setParallelism(1);
+        }
+    }
+
+    @Test
+    public void testGetMostEfficientMove_ParallelLookahead() {
+        try {
+            MoveUtil.setMaxDepth(3);
+
+            final Optional<Move> expectedMove = MoveUtil.getMostEfficientMove(this.gameState, 60_000);
+
+            MoveUtil.setParallelism(4);
+
+            for (int i = 0; i < 3; i++)
+                assertEquals(expectedMove, MoveUtil.getMostEfficientMove(new ExampleGameState(), 60_000));
+        } finally {
+            MoveUtil.setParallelism(1);
+            MoveUtil.setMaxDepth(MoveUtil.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    @Test
+    public void testGetMostEfficientMove_ParallelDeadline() {
+        try {
+            MoveUtil.setMaxDepth(8);
+            MoveUtil.setParallelism(4);
+
+            for (int timeout = 1; timeout <= 64; timeout *= 2) {
+                assertTrue(MoveUtil.getMostEfficientMove(this.gameState, timeout).isPresent());
+                assertEquals(0, MoveUtil.getRunningEvaluations());
+            }
+        } finally {
+            MoveUtil.setParallelism(1);
+            MoveUtil.setMaxDepth(MoveUtil.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    @Test
+    public void testGetMostEfficientMove_TranspositionTable() {
+        try {
+            MoveUtil.setMaxDepth(3);
+            MoveUtil.setTranspositionTableSize(0);
+
+            assertNull(MoveUtil.getTranspositionTable());
+
+            final Optional<Move> expectedMove = MoveUtil.getMostEfficientMove(this.gameState, 60_000);
+
+            MoveUtil.setTranspositionTableSize(1);
+
+            final TranspositionTable table = MoveUtil.getTranspositionTable();
+
+            assertEquals(expectedMove, MoveUtil.getMostEfficientMove(new ExampleGameState(), 60_000));
+            assertTrue(table.getHits() > 0);
+            assertTrue(table.getStores() > 0);
+        } finally {
+            MoveUtil.setMaxDepth(MoveUtil.DEFAULT_MAX_DEPTH);
+            MoveUtil.setTranspositionTableSize(MoveUtil.DEFAULT_TRANSPOSITION_TABLE_SIZE);
+        }
+    }
+
+    @Test
+    public void testSetTranspositionTableSize_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> MoveUtil.setTranspositionTableSize(-1));
+        assertNotNull(MoveUtil.getTranspositionTable());
+    }
+
+    @Test
+    public void testSetParallelism_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> MoveUtil.setParallelism(0));
+        assertEquals(1, MoveUtil.getParallelism());
+    }
+
+    @Test
+    public void testGetMostEfficientMove_MaxDepth() {
+        try {
+            MoveUtil.setMaxDepth(1);
+
+            final Optional<Move> shallowMove = MoveUtil.getMostEfficientMove(this.gameState, 500);
+
+            assertTrue(shallowMove.isPresent());
+            assertEquals(List.of(
+                    ActionFactory.changeVelocity(2),
+                    ActionFactory.turn(Direction.DOWN_RIGHT),
+                    ActionFactory.forward(2)
+            ), shallowMove.get().getActions());
+
+            MoveUtil.setMaxDepth(2);
+
+            final Optional<Move> deepMove = MoveUtil.getMostEfficientMove(this.gameState, 500);
+
+            assertTrue(deepMove.isPresent());
+            assertEquals(List.of(
+                    ActionFactory.changeVelocity(2),
+                    ActionFactory.forward(1),
+                    ActionFactory.turn(Direction.DOWN_RIGHT),
+                    ActionFactory.forward(1)
+            ), deepMove.get().getActions());
+        } finally {
+            MoveUtil.setMaxDepth(MoveUtil.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    @Test
+    public void testSetMaxDepth_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> MoveUtil.setMaxDepth(-1));
+        assertEquals(MoveUtil.DEFAULT_MAX_DEPTH, MoveUtil.getMaxDepth());
+    }
+
+    @Test
+    public void testSetMoveTimeFraction() {
+        final double fraction = MoveUtil.getMoveTimeFraction();
+
+        try {
+            MoveUtil.setMoveTimeFraction(0.5);
+
+            assertEquals(MoveUtil.SERVER_MOVE_TIME / 2, MoveUtil.getMoveTime());
+            assertThrows(IllegalArgumentException.class, () -> MoveUtil.setMoveTimeFraction(0));
+            assertThrows(IllegalArgumentException.class, () -> MoveUtil.setMoveTimeFraction(1.5));
+            assertEquals(0.5, MoveUtil.getMoveTimeFraction());
+        } finally {
+            MoveUtil.setMoveTimeFraction(fraction);
+        }
+    }
+
     @Test
     public void testGetMostEfficientMove_Goal() {
         final Ship playerShip = this.gameState.getPlayerShip();
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.player.utilities;
+
+import de.teamgruen.sc.sdk.game.ExampleGameState;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.game.MoveIterator;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PondererTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        this.gameState = new ExampleGameState();
+        this.gameState.setCurrentTeam(Team.TWO);
+    }
+
+    @Test
+    public void testTake_PredictedReply() throws InterruptedException {
+        final Ponderer ponderer = new Ponderer(PondererTest::firstMove);
+        final long hash = this.gameState.getHash();
+
+        ponderer.start(this.gameState, 1_000);
+        awaitPondering(ponderer);
+        ponderer.stop();
+
+        assertEquals(hash, this.gameState.getHash());
+        assertEquals(Team.TWO, this.gameState.getCurrentTeam());
+
+        this.applyReply(0);
+
+        assertEquals(firstMove(this.gameState, null), ponderer.take(this.gameState));
+        assertTrue(ponderer.take(this.gameState).isEmpty());
+    }
+
+    @Test
+    public void testTake_UnpredictedReply() throws InterruptedException {
+        final Ponderer ponderer = new Ponderer(PondererTest::firstMove);
+
+        ponderer.start(this.gameState, 1_000);
+        awaitPondering(ponderer);
+
+        this.applyReply(Ponderer.PREDICTED_REPLIES);
+
+        assertTrue(ponderer.take(this.gameState).isEmpty());
+    }
+
+    @Test
+    public void testStop_CancelsSearch() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final Ponderer ponderer = new Ponderer((gameState, deadline) -> {
+            started.countDown();
+
+            while (System.nanoTime() - deadline.get() < 0)
+                Thread.onSpinWait();
+
+            return firstMove(gameState, deadline);
+        });
+        final long hash = this.gameState.getHash();
+
+        ponderer.start(this.gameState, 60_000);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        final long start = System.nanoTime();
+        ponderer.stop();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertFalse(ponderer.isPondering());
+        assertEquals(hash, this.gameState.getHash());
+
+        this.applyReply(0);
+
+        // the cancelled search did not use its full time
+        assertTrue(ponderer.take(this.gameState).isEmpty());
+    }
+
+    @Test
+    public void testStop_ParallelSearch() throws InterruptedException {
+        final Ponderer ponderer = new Ponderer(MoveUtil::getMostEfficientMove);
+        final long hash = this.gameState.getHash();
+
+        try {
+            MoveUtil.setMaxDepth(8);
+            MoveUtil.setParallelism(4);
+
+            ponderer.start(this.gameState, 60_000);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while (MoveUtil.getRunningEvaluations() == 0 && System.nanoTime() - deadline < 0)
+                Thread.sleep(1);
+
+            assertTrue(MoveUtil.getRunningEvaluations() > 0);
+
+            ponderer.stop();
+
+            assertEquals(0, MoveUtil.getRunningEvaluations());
+            assertEquals(hash, this.gameState.getHash());
+            assertEquals(Team.TWO, this.gameState.getCurrentTeam());
+        } finally {
+            ponderer.shutdown();
+            MoveUtil.setParallelism(1);
+            MoveUtil.setMaxDepth(MoveUtil.DEFAULT_MAX_DEPTH);
+        }
+    }
+
+    /**
+     * Applies the reply of the enemy at the given position of the heuristic order, like a memento would.
+     */
+    private void applyReply(int position) {
+        final MoveBuffer buffer = new MoveBuffer();
+        final int moveCount = this.gameState.getMoves(buffer, Team.TWO);
+        final MoveIterator iterator = buffer.iterator();
+
+        assertTrue(moveCount > position);
+
+        int index = iterator.nextIndex();
+
+        for (int i = 0; i < position; i++)
+            index = iterator.nextIndex();
+
+        this.gameState.apply(Team.TWO, buffer.toMove(index));
+        this.gameState.setTurn(this.gameState.getTurn() + 1);
+        this.gameState.setCurrentTeam(Team.ONE);
+    }
+
+    private static Optional<Move> firstMove(GameState gameState, AtomicLong deadline) {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        return gameState.getMoves(buffer, Team.ONE) == 0 ? Optional.empty() : Optional.of(buffer.toMove(0));
+    }
+
+    private static void awaitPondering(Ponderer ponderer) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (ponderer.isPondering() && System.nanoTime() - deadline < 0)
+            Thread.sleep(1);
+
+        assertFalse(ponderer.isPondering());
+    }
+
+}
@@ -8,7 +8,6 @@ package de.teamgruen.sc.sdk;
 import de.teamgruen.sc.sdk.game.GamePhase;
 import de.teamgruen.sc.sdk.game.GameResult;
 import de.teamgruen.sc.sdk.game.GameState;
-import de.teamgruen.sc.sdk.game.board.Board;
 import de.teamgruen.sc.sdk.game.handlers.AdminGameHandler;
 import de.teamgruen.sc.sdk.game.handlers.GameHandler;
 import de.teamgruen.sc.sdk.protocol.XMLProtocolPacket;
@@ -16,9 +15,7 @@ import de.teamgruen.sc.sdk.protocol.admin.AdminXMLProtocolPacket;
 import de.teamgruen.sc.sdk.protocol.admin.PlayerJoinedRoomResponse;
 import de.teamgruen.sc.sdk.protocol.admin.PreparedRoomResponse;
 import de.teamgruen.sc.sdk.protocol.data.Move;
-import de.teamgruen.sc.sdk.protocol.data.State;
 import de.teamgruen.sc.sdk.protocol.data.actions.Action;
-import de.teamgruen.sc.sdk.protocol.data.board.BoardData;
 import de.teamgruen.sc.sdk.protocol.data.scores.ScoreFragment;
 import de.teamgruen.sc.sdk.protocol.data.scores.Winner;
 import de.teamgruen.sc.sdk.protocol.responses.ErrorPacket;
@@ -74,15 +71,8 @@ public class ClientPacketHandler {
                 this.gameState.setPlayerTeam(message.getTeam());
                 this.gameHandler.onGameStart(this.gameState);
             } else if (data instanceof MementoMessage message) {
-                final State state = message.getState();
-                final BoardData board = state.getBoard();
-                final Board stateBoard = this.gameState.getBoard();
-                stateBoard.setNextSegmentDirection(board.getNextDirection());
-                stateBoard.updateSegments(board.getSegments());
-
-                this.gameState.updateShips(state.getShips());
-                this.gameState.setTurn(state.getTurn());
-                this.gameState.setCurrentTeam(state.getCurrentTeam());
+                this.gameHandler.beforeBoardUpdate(this.gameState);
+                this.gameState.update(message.getState());
 
                 this.gameHandler.onBoardUpdate(this.gameState);
             } else if (data instanceof MoveRequestMessage) {
@@ -31,7 +31,7 @@ public class AdvanceInfo {
      * @return the end position
      */
     public Vector3 getEndPosition(@NonNull Vector3 position, @NonNull Direction direction) {
-        return position.copy().add(direction.toVector3().multiply(this.distance));
+        return position.copy().add(direction, this.distance);
     }
 
     public enum Result {
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import lombok.NonNull;
+
+/**
+ * Packed primitive representation of a hex position.
+ * A cell is the row-major index of the axial coordinates (q, r) in a square grid with an offset origin,
+ * so it can be used directly as an array index. The s coordinate is implied by q + r + s = 0.
+ */
+public class Cell {
+
+    /**
+     * The radius of the grid. Segment centers are 4 fields apart, so all 8 segments plus a margin
+     * for neighbour lookups always fit into axial coordinates in [-RADIUS, RADIUS].
+     */
+    public static final int RADIUS = 36;
+    public static final int WIDTH = RADIUS * 2 + 1;
+    public static final int COUNT = WIDTH * WIDTH;
+    public static final int NONE = -1;
+
+    /**
+     * @param q the q coordinate
+     * @param r the r coordinate
+     * @return the packed cell or {@link #NONE} if the coordinates are outside the grid
+     */
+    public static int of(int q, int r) {
+        final int column = q + RADIUS, row = r + RADIUS;
+
+        if(column < 0 || column >= WIDTH || row < 0 || row >= WIDTH)
+            return NONE;
+
+        return row * WIDTH + column;
+    }
+
+    /**
+     * @param vector the vector to pack, may be null
+     * @return the packed cell or {@link #NONE} if the vector is null or outside the grid
+     */
+    public static int of(Vector3 vector) {
+        return vector == null ? NONE : of(vector.getQ(), vector.getR());
+    }
+
+    /**
+     * @param cell the packed cell
+     * @return whether the cell is inside the grid
+     */
+    public static boolean isValid(int cell) {
+        return cell >= 0 && cell < COUNT;
+    }
+
+    public static int q(int cell) {
+        return cell % WIDTH - RADIUS;
+    }
+
+    public static int r(int cell) {
+        return cell / WIDTH - RADIUS;
+    }
+
+    public static int s(int cell) {
+        return -q(cell) - r(cell);
+    }
+
+    /**
+     * @param cell the packed cell
+     * @return a new vector for the cell
+     * @throws IllegalArgumentException if the cell is outside the grid
+     */
+    public static Vector3 toVector3(int cell) {
+        if(!isValid(cell))
+            throw new IllegalArgumentException("Cell is outside of the grid: " + cell);
+
+        final int q = q(cell), r = r(cell);
+
+        return new Vector3(q, r, -q - r);
+    }
+
+    /**
+     * @param direction the direction
+     * @return the offset to add to a cell to move one field into the given direction
+     */
+    public static int offset(@NonNull Direction direction) {
+        return direction.getR() * WIDTH + direction.getQ();
+    }
+
+    /**
+     * Moves the cell into the given direction. Cells of revealed fields are at least {@link #RADIUS} - 32 fields away
+     * from the grid border, so walking from a field until the first missing field never wraps around a row.
+     *
+     * @param cell the packed cell
+     * @param direction the direction to move into
+     * @return the neighbouring cell or {@link #NONE} if the cell is {@link #NONE}
+     */
+    public static int add(int cell, @NonNull Direction direction) {
+        return cell == NONE ? NONE : cell + offset(direction);
+    }
+
+    /**
+     * @param cell the packed cell
+     * @param direction the direction to move into
+     * @param times the amount of fields to move
+     * @return the resulting cell or {@link #NONE} if the cell is {@link #NONE}
+     */
+    public static int add(int cell, @NonNull Direction direction, int times) {
+        return cell == NONE ? NONE : cell + offset(direction) * times;
+    }
+
+    /**
+     * @param from the start cell
+     * @param to the neighbouring cell
+     * @return the direction from the start cell to the neighbouring cell or null if the cells are not neighbours
+     */
+    public static Direction directionTo(int from, int to) {
+        if(from == NONE || to == NONE)
+            return null;
+
+        // Direction.of reads the cached values, values() would copy them on every call
+        for (int i = 0; i < Direction.COUNT; i++) {
+            final Direction direction = Direction.of(i);
+
+            if (from + offset(direction) == to)
+                return direction;
+        }
+
+        return null;
+    }
+
+    /**
+     * @param cell the first cell
+     * @param otherCell the second cell
+     * @return the amount of fields between the two cells
+     */
+    public static int distance(int cell, int otherCell) {
+        final int deltaQ = q(cell) - q(otherCell), deltaR = r(cell) - r(otherCell);
+
+        return Math.max(Math.abs(deltaQ), Math.max(Math.abs(deltaR), Math.abs(deltaQ + deltaR)));
+    }
+
+}
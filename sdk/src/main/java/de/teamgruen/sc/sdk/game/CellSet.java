@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import java.util.Arrays;
+
+/**
+ * Insertion-ordered set of packed cells.
+ * Membership is a single bitset lookup and iteration works on a primitive array, so neither allocates.
+ */
+public class CellSet {
+
+    private final long[] bits = new long[(Cell.COUNT + 63) >>> 6];
+    private int[] cells = new int[16];
+    private int size = 0;
+
+    /**
+     * @param cell the packed cell to add
+     * @return whether the cell was added, false if it is invalid or already part of the set
+     */
+    public boolean add(int cell) {
+        if(!Cell.isValid(cell))
+            return false;
+
+        final long mask = 1L << cell;
+
+        if((this.bits[cell >>> 6] & mask) != 0)
+            return false;
+
+        this.bits[cell >>> 6] |= mask;
+
+        if(this.size == this.cells.length)
+            this.cells = Arrays.copyOf(this.cells, this.size * 2);
+
+        this.cells[this.size++] = cell;
+
+        return true;
+    }
+
+    /**
+     * @param cell the packed cell to check
+     * @return whether the cell is part of the set
+     */
+    public boolean contains(int cell) {
+        return Cell.isValid(cell) && ((this.bits[cell >>> 6] >>> cell) & 1L) != 0;
+    }
+
+    /**
+     * @param index the insertion index
+     * @return the cell at the given insertion index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int get(int index) {
+        if(index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+
+        return this.cells[index];
+    }
+
+    /**
+     * @param cell the packed cell to find
+     * @return the insertion index of the cell or -1 if the cell is not part of the set
+     */
+    public int indexOf(int cell) {
+        if(!this.contains(cell))
+            return -1;
+
+        for (int i = 0; i < this.size; i++) {
+            if(this.cells[i] == cell)
+                return i;
+        }
+
+        return -1;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.size; i++)
+            this.bits[this.cells[i] >>> 6] = 0;
+
+        this.size = 0;
+    }
+
+}
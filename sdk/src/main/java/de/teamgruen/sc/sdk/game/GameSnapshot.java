@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.game.board.Board;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Snapshot of a game state for searches that must not mutate the live {@link GameState}.
+ * The ships are immutable copies, but the board is the shared, mutable board of the game state, so the snapshot
+ * is only valid as long as the board is unchanged, see {@link #isBoardChanged()}. Moves are generated for either team,
+ * so the replies of the enemy are enumerated the same way as the moves of the player.
+ * <p>
+ * Applying a move returns a new snapshot. Collected passengers are credited to the ship, but they are not removed
+ * from the shared board, so plies after a pick up may still see the passenger.
+ */
+@Getter
+public class GameSnapshot {
+
+    private final Board board;
+    private final Team currentTeam;
+    private final int turn;
+    private final ShipSnapshot shipOne, shipTwo;
+    /**
+     * The Zobrist hash of the ships and the board passenger counts, see {@link GameState#getHash()}
+     */
+    private final long hash;
+    /**
+     * The passenger hash and the amount of segments of the board when the snapshot was taken
+     */
+    private final long passengerHash;
+    private final int segmentCount;
+
+    public GameSnapshot(@NonNull Board board,
+                        @NonNull Team currentTeam,
+                        int turn,
+                        @NonNull ShipSnapshot shipOne,
+                        @NonNull ShipSnapshot shipTwo) {
+        if(shipOne.team() != Team.ONE || shipTwo.team() != Team.TWO)
+            throw new IllegalArgumentException("Ships must be ordered by team");
+
+        this.board = board;
+        this.currentTeam = currentTeam;
+        this.turn = turn;
+        this.shipOne = shipOne;
+        this.shipTwo = shipTwo;
+        this.passengerHash = board.getPassengerHash();
+        this.segmentCount = board.getSegments().size();
+        this.hash = shipOne.hash() ^ shipTwo.hash() ^ this.passengerHash;
+    }
+
+    /**
+     * @return whether passengers or segments of the shared board changed since the snapshot was taken,
+     * moves generated before are outdated in that case
+     */
+    public boolean isBoardChanged() {
+        return this.board.getPassengerHash() != this.passengerHash || this.board.getSegments().size() != this.segmentCount;
+    }
+
+    /**
+     * @param gameState the game state to copy
+     * @return the snapshot of the game state
+     * @throws IllegalStateException if the current team is unknown
+     */
+    public static GameSnapshot of(@NonNull GameState gameState) {
+        if(gameState.getCurrentTeam() == null)
+            throw new IllegalStateException("Current team is unknown");
+
+        return new GameSnapshot(
+                gameState.getBoard(),
+                gameState.getCurrentTeam(),
+                gameState.getTurn(),
+                ShipSnapshot.of(gameState.getShip(Team.ONE)),
+                ShipSnapshot.of(gameState.getShip(Team.TWO))
+        );
+    }
+
+    /**
+     * @param team the team of the ship
+     * @return the ship of the team
+     */
+    public ShipSnapshot getShip(@NonNull Team team) {
+        return team == Team.ONE ? this.shipOne : this.shipTwo;
+    }
+
+    /**
+     * Generates the moves of the current team, see {@link #getMoves(MoveBuffer, Team)}.
+     *
+     * @param buffer the buffer to write the moves into
+     * @return the amount of generated moves
+     */
+    public int getMoves(@NonNull MoveBuffer buffer) {
+        return this.getMoves(buffer, this.currentTeam);
+    }
+
+    /**
+     * Generates all moves of the given team's ship with its full coal, the other ship is the one being pushed.
+     *
+     * @param buffer the buffer to write the moves into
+     * @param team the team of the moving ship
+     * @return the amount of generated moves
+     * @throws IllegalStateException if the position of the moving ship is unknown
+     */
+    public int getMoves(@NonNull MoveBuffer buffer, @NonNull Team team) {
+        return this.getMoves(buffer, team, this.getShip(team).coal());
+    }
+
+    /**
+     * Generates the moves of the given team's ship that use at most the given coal, the other ship is the one being pushed.
+     *
+     * @param buffer the buffer to write the moves into
+     * @param team the team of the moving ship
+     * @param coal the maximum amount of coal to use, limited to the coal of the ship
+     * @return the amount of generated moves
+     * @throws IllegalStateException if the position of the moving ship is unknown
+     */
+    public int getMoves(@NonNull MoveBuffer buffer, @NonNull Team team, int coal) {
+        final ShipSnapshot ship = this.getShip(team), enemyShip = this.getShip(team.getOpponent());
+
+        if(ship.cell() == Cell.NONE)
+            throw new IllegalStateException("Ship position is unknown");
+
+        return this.board.getMoves(buffer, ship.toShip(), ship.cell(), ship.direction(), enemyShip.toShip(),
+                enemyShip.cell(), ship.speed(), ship.freeTurns(), Math.min(coal, ship.coal()), false);
+    }
+
+    /**
+     * Applies a generated move of the current team with the same rules as {@link GameState#apply(Team, Move)}.
+     * The returned snapshot continues with the other team in the next turn.
+     *
+     * @param buffer the buffer the move was generated into by {@link #getMoves(MoveBuffer)}
+     * @param index the index of the move in the buffer
+     * @return the snapshot after the move
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public GameSnapshot apply(@NonNull MoveBuffer buffer, int index) {
+        final ShipSnapshot ship = this.getShip(this.currentTeam), enemyShip = this.getShip(this.currentTeam.getOpponent());
+        final int totalCost = buffer.getTotalCost(index);
+        final int coalCost = buffer.getCoalCost(index, ship.direction(), ship.speed(), ship.freeTurns());
+        final boolean passenger = buffer.getPassengers(index) > 0
+                && this.board.getPickUpPassengerCell(buffer.getEndCell(index)) != Cell.NONE;
+        final Direction endDirection = buffer.getEndDirection(index);
+
+        final ShipSnapshot movedShip = new ShipSnapshot(
+                ship.team(),
+                buffer.getEndCell(index),
+                endDirection,
+                totalCost > 0 ? totalCost : ship.speed(),
+                ship.coal() - coalCost,
+                1,
+                ship.passengers() + (passenger ? 1 : 0),
+                ship.points(),
+                ship.stuck()
+        );
+        final ShipSnapshot movedEnemyShip = buffer.getPushes(index) == 0 ? enemyShip : new ShipSnapshot(
+                enemyShip.team(),
+                buffer.getEnemyEndCell(index),
+                enemyShip.direction(),
+                enemyShip.speed(),
+                enemyShip.coal(),
+                2,
+                enemyShip.passengers(),
+                enemyShip.points(),
+                enemyShip.stuck()
+        );
+
+        return this.currentTeam == Team.ONE
+                ? new GameSnapshot(this.board, Team.TWO, this.turn + 1, movedShip, movedEnemyShip)
+                : new GameSnapshot(this.board, Team.ONE, this.turn + 1, movedEnemyShip, movedShip);
+    }
+
+}
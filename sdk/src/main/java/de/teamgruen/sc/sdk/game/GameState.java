@@ -7,8 +7,17 @@ package de.teamgruen.sc.sdk.game;
 
 import de.teamgruen.sc.sdk.game.board.Board;
 import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
 import de.teamgruen.sc.sdk.protocol.data.ShipData;
+import de.teamgruen.sc.sdk.protocol.data.State;
 import de.teamgruen.sc.sdk.protocol.data.Team;
+import de.teamgruen.sc.sdk.protocol.data.actions.Action;
+import de.teamgruen.sc.sdk.protocol.data.actions.Forward;
+import de.teamgruen.sc.sdk.protocol.data.actions.Push;
+import de.teamgruen.sc.sdk.protocol.data.actions.Turn;
+import de.teamgruen.sc.sdk.protocol.data.board.BoardData;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldCode;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -21,11 +30,32 @@ import java.util.NoSuchElementException;
 @Setter
 public class GameState {
 
+    /**
+     * Layout of a single frame on the undo stack
+     */
+    private static final int UNDO_TEAM = 0, UNDO_Q = 1, UNDO_R = 2, UNDO_DIRECTION = 3, UNDO_SPEED = 4, UNDO_COAL = 5,
+            UNDO_FREE_TURNS = 6, UNDO_PASSENGERS = 7, UNDO_ENEMY_Q = 8, UNDO_ENEMY_R = 9, UNDO_ENEMY_FREE_TURNS = 10,
+            UNDO_PASSENGER_CELL = 11, UNDO_FIELD_PASSENGERS = 12, UNDO_FRAME_SIZE = 13;
+
     protected final Board board = new Board();
     protected final List<Ship> ships = Arrays.stream(Team.values()).map(Ship::new).toList();
     protected GamePhase gamePhase = GamePhase.LOBBY;
     protected Team playerTeam, currentTeam;
     protected int turn;
+    /**
+     * XOR of the {@link Zobrist#ship(Ship)} keys of all ships
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    protected long shipHash = this.computeShipHash();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] undoStack = new int[UNDO_FRAME_SIZE * 16];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] undoHashes = new long[16];
+    @Setter(AccessLevel.NONE)
+    private int undoDepth = 0;
 
     public Ship getShip(Team team) {
         return this.ships.stream()
@@ -42,6 +72,21 @@ public class GameState {
         return this.ships.stream().filter(ship -> ship.getTeam() != this.playerTeam).findFirst().orElse(null);
     }
 
+    /**
+     * Updates the board, the ships, the turn and the current team from a memento state.
+     *
+     * @param state the state received from the server
+     */
+    public void update(@NonNull State state) {
+        final BoardData boardData = state.getBoard();
+        this.board.setNextSegmentDirection(boardData.getNextDirection());
+        this.board.updateSegments(boardData.getSegments());
+
+        this.updateShips(state.getShips());
+        this.turn = state.getTurn();
+        this.currentTeam = state.getCurrentTeam();
+    }
+
     /**
      * Updates the ships with the new ship data list.
      *
@@ -54,6 +99,8 @@ public class GameState {
             if(stateShip == null)
                 throw new NoSuchElementException("Ship not found for team " + ship.getTeam());
 
+            this.shipHash ^= Zobrist.ship(stateShip);
+
             stateShip.setPosition(ship.getPosition().toVector3());
             stateShip.setDirection(ship.getDirection());
             stateShip.setPassengers(ship.getPassengers());
@@ -62,7 +109,204 @@ public class GameState {
             stateShip.setFreeTurns(ship.getFreeTurns());
             stateShip.setPoints(ship.getPoints());
             stateShip.setStuck(ship.isStuck());
+
+            this.shipHash ^= Zobrist.ship(stateShip);
         });
+
+        // the server state replaces any applied moves
+        this.undoDepth = 0;
+    }
+
+    /**
+     * Generates all moves of the given team's ship with its full coal, the other ship is the one being pushed.
+     *
+     * @param buffer the buffer to write the moves into
+     * @param team the team of the moving ship
+     * @return the amount of generated moves
+     * @throws IllegalStateException if the position of the moving ship is unknown
+     */
+    public int getMoves(@NonNull MoveBuffer buffer, @NonNull Team team) {
+        final Ship ship = this.ships.get(team.ordinal()), enemyShip = this.ships.get(team.getOpponent().ordinal());
+
+        if(ship.getPosition() == null)
+            throw new IllegalStateException("Ship position is unknown");
+
+        return this.board.getMoves(buffer, ship, Cell.of(ship.getPosition()), ship.getDirection(), enemyShip,
+                Cell.of(enemyShip.getPosition()), ship.getSpeed(), ship.getFreeTurns(), ship.getCoal(), false);
+    }
+
+    /**
+     * @return an immutable snapshot of the ships, the turn and the current team which shares this state's board
+     * @throws IllegalStateException if the current team is unknown
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.of(this);
+    }
+
+    /**
+     * Applies a move of the player's ship, see {@link #apply(Team, Move)}.
+     *
+     * @param move the move to apply
+     */
+    public void apply(@NonNull Move move) {
+        this.apply(this.playerTeam, move);
+    }
+
+    /**
+     * Applies a move of the given team's ship and records the previous values on the undo stack,
+     * so the move can be reverted by {@link #undo()} without copying the state.
+     * The ship's speed is set to the movement points used by the move, its coal is reduced by the coal cost
+     * of the move, its free turns are reset to 1 and
+     * a passenger collected at the end of the move is transferred from the passenger field to the ship.
+     *
+     * @param team the team of the moving ship
+     * @param move the move to apply
+     * @throws IllegalStateException if a required ship position is unknown
+     */
+    public void apply(@NonNull Team team, @NonNull Move move) {
+        final Ship ship = this.ships.get(team.ordinal());
+        final Ship enemyShip = this.ships.get(1 - team.ordinal());
+        final Vector3 position = ship.getPosition(), enemyPosition = enemyShip.getPosition();
+
+        if(position == null)
+            throw new IllegalStateException("Ship position is unknown");
+
+        if(this.undoDepth == this.undoHashes.length) {
+            this.undoStack = Arrays.copyOf(this.undoStack, this.undoStack.length * 2);
+            this.undoHashes = Arrays.copyOf(this.undoHashes, this.undoHashes.length * 2);
+        }
+
+        final int frame = this.undoDepth * UNDO_FRAME_SIZE;
+        final Direction direction = ship.getDirection();
+        final int speed = ship.getSpeed(), freeTurns = ship.getFreeTurns();
+
+        this.undoStack[frame + UNDO_TEAM] = team.ordinal();
+        this.undoStack[frame + UNDO_Q] = position.getQ();
+        this.undoStack[frame + UNDO_R] = position.getR();
+        this.undoStack[frame + UNDO_DIRECTION] = direction.ordinal();
+        this.undoStack[frame + UNDO_SPEED] = speed;
+        this.undoStack[frame + UNDO_COAL] = ship.getCoal();
+        this.undoStack[frame + UNDO_FREE_TURNS] = freeTurns;
+        this.undoStack[frame + UNDO_PASSENGERS] = ship.getPassengers();
+        this.undoStack[frame + UNDO_ENEMY_Q] = enemyPosition != null ? enemyPosition.getQ() : 0;
+        this.undoStack[frame + UNDO_ENEMY_R] = enemyPosition != null ? enemyPosition.getR() : 0;
+        this.undoStack[frame + UNDO_ENEMY_FREE_TURNS] = enemyShip.getFreeTurns();
+        this.undoStack[frame + UNDO_PASSENGER_CELL] = Cell.NONE;
+        this.undoHashes[this.undoDepth] = this.shipHash;
+
+        this.shipHash ^= Zobrist.ship(ship) ^ Zobrist.ship(enemyShip);
+
+        for (Action action : move.getActions()) {
+            if(action instanceof Turn turn)
+                ship.setDirection(turn.getDirection());
+            else if(action instanceof Forward forward)
+                position.add(ship.getDirection(), forward.getDistance());
+            else if(action instanceof Push push) {
+                if(enemyPosition == null)
+                    throw new IllegalStateException("Enemy ship position is unknown");
+
+                enemyPosition.add(push.getDirection());
+                enemyShip.setFreeTurns(2);
+            }
+        }
+
+        // the used movement points are the new speed, with or without an explicit acceleration action
+        if(move.getTotalCost() > 0)
+            ship.setSpeed(move.getTotalCost());
+
+        ship.setCoal(ship.getCoal() - move.getCoalCost(direction, speed, freeTurns));
+        ship.setFreeTurns(1);
+
+        if(move.getPassengers() > 0) {
+            final int passengerCell = this.board.getPickUpPassengerCell(Cell.of(position));
+
+            if(passengerCell != Cell.NONE) {
+                final int fieldPassengers = FieldCode.getPassengers(this.board.getFieldCode(passengerCell));
+
+                this.undoStack[frame + UNDO_PASSENGER_CELL] = passengerCell;
+                this.undoStack[frame + UNDO_FIELD_PASSENGERS] = fieldPassengers;
+                this.board.setPassengers(passengerCell, fieldPassengers - 1);
+                ship.setPassengers(ship.getPassengers() + 1);
+            }
+        }
+
+        this.shipHash ^= Zobrist.ship(ship) ^ Zobrist.ship(enemyShip);
+        this.undoDepth++;
+    }
+
+    /**
+     * Reverts the last move applied by {@link #apply(Team, Move)}.
+     *
+     * @throws IllegalStateException if there is no move to revert
+     */
+    public void undo() {
+        if(this.undoDepth == 0)
+            throw new IllegalStateException("No move to undo");
+
+        this.undoDepth--;
+
+        final int frame = this.undoDepth * UNDO_FRAME_SIZE;
+        final int team = this.undoStack[frame + UNDO_TEAM];
+        final Ship ship = this.ships.get(team), enemyShip = this.ships.get(1 - team);
+        final int q = this.undoStack[frame + UNDO_Q], r = this.undoStack[frame + UNDO_R];
+
+        ship.getPosition().set(q, r, -q - r);
+        ship.setDirection(Direction.of(this.undoStack[frame + UNDO_DIRECTION]));
+        ship.setSpeed(this.undoStack[frame + UNDO_SPEED]);
+        ship.setCoal(this.undoStack[frame + UNDO_COAL]);
+        ship.setFreeTurns(this.undoStack[frame + UNDO_FREE_TURNS]);
+        ship.setPassengers(this.undoStack[frame + UNDO_PASSENGERS]);
+
+        if(enemyShip.getPosition() != null) {
+            final int enemyQ = this.undoStack[frame + UNDO_ENEMY_Q], enemyR = this.undoStack[frame + UNDO_ENEMY_R];
+
+            enemyShip.getPosition().set(enemyQ, enemyR, -enemyQ - enemyR);
+        }
+
+        enemyShip.setFreeTurns(this.undoStack[frame + UNDO_ENEMY_FREE_TURNS]);
+
+        final int passengerCell = this.undoStack[frame + UNDO_PASSENGER_CELL];
+
+        if(passengerCell != Cell.NONE)
+            this.board.setPassengers(passengerCell, this.undoStack[frame + UNDO_FIELD_PASSENGERS]);
+
+        this.shipHash = this.undoHashes[this.undoDepth];
+    }
+
+    /**
+     * Returns the Zobrist hash of the ships and the board passenger counts.
+     * The hash is maintained incrementally by {@link #updateShips(List)} and
+     * {@link de.teamgruen.sc.sdk.protocol.data.actions.Action#perform(GameState)}.
+     *
+     * @return the 64-bit hash of the game state
+     */
+    public long getHash() {
+        return this.shipHash ^ this.board.getPassengerHash();
+    }
+
+    /**
+     * XORs the given Zobrist keys into the hash, used by actions to toggle the keys of changed features.
+     *
+     * @param keys the keys to toggle
+     */
+    public void toggleHash(long keys) {
+        this.shipHash ^= keys;
+    }
+
+    /**
+     * Recomputes the hash from scratch, required after ships were modified without an action.
+     */
+    public void rehash() {
+        this.shipHash = this.computeShipHash();
+    }
+
+    private long computeShipHash() {
+        long hash = 0;
+
+        for (Ship ship : this.ships)
+            hash ^= Zobrist.ship(ship);
+
+        return hash;
     }
 
     /**
@@ -38,6 +38,30 @@ public class Move {
         this.endDirection = endDirection;
     }
 
+    Move(Vector3 endPosition,
+         Vector3 enemyEndPosition,
+         Direction endDirection,
+         List<Action> actions,
+         int distance,
+         int totalCost,
+         int passengers,
+         int pushes,
+         int segmentIndex,
+         int segmentColumn,
+         boolean goal) {
+        this.endPosition = endPosition;
+        this.enemyEndPosition = enemyEndPosition;
+        this.endDirection = endDirection;
+        this.actions.addAll(actions);
+        this.distance = distance;
+        this.totalCost = totalCost;
+        this.passengers = passengers;
+        this.pushes = pushes;
+        this.segmentIndex = segmentIndex;
+        this.segmentColumn = segmentColumn;
+        this.goal = goal;
+    }
+
     public Move copy() {
         final Move move = new Move();
         move.append(this);
@@ -68,7 +92,7 @@ public class Move {
 
     public void push(@NonNull Direction direction) {
         if(this.enemyEndPosition != null)
-            this.enemyEndPosition.add(direction.toVector3());
+            this.enemyEndPosition.add(direction);
 
         this.actions.add(ActionFactory.push(direction));
         this.totalCost++;
@@ -76,7 +100,7 @@ public class Move {
     }
 
     public void forward(int distance, int cost) {
-        this.endPosition.add(this.endDirection.toVector3().multiply(distance));
+        this.endPosition.add(this.endDirection, distance);
 
         // merge with last forward action if possible
         if(!this.actions.isEmpty() && this.actions.get(this.actions.size() - 1) instanceof Forward forward)
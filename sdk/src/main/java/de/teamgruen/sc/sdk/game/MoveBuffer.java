@@ -0,0 +1,548 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.actions.Action;
+import de.teamgruen.sc.sdk.protocol.data.actions.ActionFactory;
+import de.teamgruen.sc.sdk.protocol.data.actions.Forward;
+import de.teamgruen.sc.sdk.protocol.data.actions.Push;
+import de.teamgruen.sc.sdk.protocol.data.actions.Turn;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reusable, struct-of-arrays storage for generated moves.
+ * The actions of a move are packed into a single long with 5 bits per action (2 bits type, 3 bits direction or distance),
+ * so generating moves does not allocate once the buffer has grown to its working size.
+ * {@link Move} objects are only created on demand via {@link #toMove(int)}.
+ * <p>
+ * Moves are deduplicated by their end state (position, direction, speed, enemy position, pushes, passengers and goal).
+ * The pushes are part of the end state, since every push gives the enemy free turns.
+ * Of all moves reaching the same end state only the one with the lowest turn cost, and therefore the lowest coal cost,
+ * is kept, ties are broken by the amount of actions.
+ */
+public class MoveBuffer {
+
+    public static final int MAX_ACTIONS = 12;
+    public static final int TURN = 1, FORWARD = 2, PUSH = 3;
+
+    private static final int ACTION_BITS = 5;
+    private static final int ACTION_MASK = (1 << ACTION_BITS) - 1;
+
+    private long[] actions;
+    private byte[] actionCounts, endDirections, distances, totalCosts, turnCosts, passengers, pushes, segmentIndices, segmentColumns;
+    private int[] endCells, enemyEndCells;
+    private boolean[] goals;
+    private int[] table;
+    private int size = 0;
+    private MoveBuffer[] partitions = new MoveBuffer[0];
+    private int modificationCount = 0;
+
+    public MoveBuffer() {
+        this(64);
+    }
+
+    /**
+     * @param capacity the initial amount of moves the buffer can hold without growing
+     */
+    public MoveBuffer(int capacity) {
+        this.allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds a move unless a move with the same end state and at most the same turn cost is already part of the buffer.
+     *
+     * @param actions the packed actions of the move
+     * @param actionCount the amount of packed actions
+     * @param endCell the packed end position of the ship
+     * @param enemyEndCell the packed end position of the enemy ship or {@link Cell#NONE}
+     * @param endDirection the end direction of the ship
+     * @param distance the distance travelled
+     * @param totalCost the used movement points
+     * @param turnCost the sum of all turns, without considering free turns
+     * @param passengers the amount of picked up passengers
+     * @param pushes the amount of pushes
+     * @param segmentIndex the segment index of the end position
+     * @param segmentColumn the segment column of the end position
+     * @param goal whether the move ends on a goal field
+     * @return whether the move was added or replaced a more expensive move, false if it is a duplicate
+     */
+    public boolean add(long actions,
+                       int actionCount,
+                       int endCell,
+                       int enemyEndCell,
+                       @NonNull Direction endDirection,
+                       int distance,
+                       int totalCost,
+                       int turnCost,
+                       int passengers,
+                       int pushes,
+                       int segmentIndex,
+                       int segmentColumn,
+                       boolean goal) {
+        final int mask = this.table.length - 1;
+        int slot = hash(endCell, enemyEndCell, endDirection.ordinal(), totalCost, pushes) & mask;
+
+        while (this.table[slot] != 0) {
+            final int index = this.table[slot] - 1;
+
+            if (this.endCells[index] == endCell
+                    && this.enemyEndCells[index] == enemyEndCell
+                    && this.endDirections[index] == endDirection.ordinal()
+                    && this.totalCosts[index] == totalCost
+                    && this.pushes[index] == pushes
+                    && this.passengers[index] == passengers
+                    && this.goals[index] == goal) {
+                final boolean isCheaper = turnCost < this.turnCosts[index]
+                        || (turnCost == this.turnCosts[index] && actionCount < this.actionCounts[index]);
+
+                if (!isCheaper)
+                    return false;
+
+                this.modificationCount++;
+                this.set(index, actions, actionCount, endCell, enemyEndCell, endDirection, distance, totalCost, turnCost, passengers, pushes, segmentIndex, segmentColumn, goal);
+
+                return true;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        if (this.size == this.actions.length) {
+            this.grow();
+
+            return this.add(actions, actionCount, endCell, enemyEndCell, endDirection, distance, totalCost, turnCost, passengers, pushes, segmentIndex, segmentColumn, goal);
+        }
+
+        final int index = this.size++;
+
+        this.modificationCount++;
+        this.set(index, actions, actionCount, endCell, enemyEndCell, endDirection, distance, totalCost, turnCost, passengers, pushes, segmentIndex, segmentColumn, goal);
+        this.table[slot] = index + 1;
+
+        return true;
+    }
+
+    /**
+     * Adds all moves of the given buffer in their order, keeping the cheaper move of equal end states.
+     *
+     * @param buffer the buffer to copy the moves from
+     */
+    public void addAll(@NonNull MoveBuffer buffer) {
+        for (int i = 0; i < buffer.size; i++) {
+            this.add(
+                    buffer.actions[i],
+                    buffer.actionCounts[i],
+                    buffer.endCells[i],
+                    buffer.enemyEndCells[i],
+                    Direction.of(buffer.endDirections[i]),
+                    buffer.distances[i],
+                    buffer.totalCosts[i],
+                    buffer.turnCosts[i],
+                    buffer.passengers[i],
+                    buffer.pushes[i],
+                    buffer.segmentIndices[i],
+                    buffer.segmentColumns[i],
+                    buffer.goals[i]
+            );
+        }
+    }
+
+    /**
+     * Partitions are scratch buffers owned by this buffer, so parallel generation can write into separate
+     * buffers without contention and without allocating new ones for every generation.
+     * Partitions must be requested before they are handed to other threads.
+     *
+     * @param index the index of the partition
+     * @return the partition with the given index, created on first access
+     */
+    public MoveBuffer getPartition(int index) {
+        if(index < 0)
+            throw new IndexOutOfBoundsException("Index " + index + " is negative");
+
+        if(index >= this.partitions.length)
+            this.partitions = Arrays.copyOf(this.partitions, index + 1);
+
+        if(this.partitions[index] == null)
+            this.partitions[index] = new MoveBuffer(this.actions.length);
+
+        return this.partitions[index];
+    }
+
+    /**
+     * Returns an iterator over all moves in heuristic order: goal moves first, then by the amount of passengers,
+     * the segment progress of the end position and finally the turn cost. Moves with equal keys keep their
+     * generation order. The iterator fails if the buffer is changed afterwards.
+     *
+     * @return an iterator over the moves of this buffer
+     */
+    public MoveIterator iterator() {
+        final long[] order = new long[this.size];
+
+        for (int i = 0; i < this.size; i++) {
+            final int key = (this.goals[i] ? 1 << 11 : 0)
+                    | Math.min(this.passengers[i], 3) << 9
+                    | Math.min(this.segmentIndices[i] * 4 + this.segmentColumns[i], 63) << 3
+                    | 7 - Math.min(this.turnCosts[i], 7);
+
+            // ascending order of the inverted key is descending order of the key, ties are sorted by index
+            order[i] = (long) (~key & 0xFFF) << 32 | i;
+        }
+
+        Arrays.sort(order);
+
+        return new MoveIterator(this, order, this.modificationCount);
+    }
+
+    /**
+     * @return a sequential stream over the moves in the order of {@link #iterator()}
+     */
+    public Stream<Move> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(this.iterator(), this.size, Spliterator.ORDERED | Spliterator.NONNULL),
+                false
+        );
+    }
+
+    int getModificationCount() {
+        return this.modificationCount;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0);
+
+        this.modificationCount++;
+
+        this.size = 0;
+    }
+
+    public long getActions(int index) {
+        return this.actions[this.checkIndex(index)];
+    }
+
+    public int getActionCount(int index) {
+        return this.actionCounts[this.checkIndex(index)];
+    }
+
+    public int getEndCell(int index) {
+        return this.endCells[this.checkIndex(index)];
+    }
+
+    public int getEnemyEndCell(int index) {
+        return this.enemyEndCells[this.checkIndex(index)];
+    }
+
+    public Direction getEndDirection(int index) {
+        return Direction.of(this.endDirections[this.checkIndex(index)]);
+    }
+
+    public int getDistance(int index) {
+        return this.distances[this.checkIndex(index)];
+    }
+
+    public int getTotalCost(int index) {
+        return this.totalCosts[this.checkIndex(index)];
+    }
+
+    public int getTurnCost(int index) {
+        return this.turnCosts[this.checkIndex(index)];
+    }
+
+    public int getPassengers(int index) {
+        return this.passengers[this.checkIndex(index)];
+    }
+
+    public int getPushes(int index) {
+        return this.pushes[this.checkIndex(index)];
+    }
+
+    public int getSegmentIndex(int index) {
+        return this.segmentIndices[this.checkIndex(index)];
+    }
+
+    public int getSegmentColumn(int index) {
+        return this.segmentColumns[this.checkIndex(index)];
+    }
+
+    public boolean isGoal(int index) {
+        return this.goals[this.checkIndex(index)];
+    }
+
+    /**
+     * Same as {@link Move#getCoalCost(Direction, int, int)} without materializing the move.
+     *
+     * @param index the index of the move
+     * @param direction the direction of the ship before the move
+     * @param speed the speed of the ship before the move
+     * @param freeTurns the free turns of the ship before the move
+     * @return the coal needed for the move
+     */
+    public int getCoalCost(int index, @NonNull Direction direction, int speed, int freeTurns) {
+        final long packedActions = this.getActions(index);
+        final int actionCount = this.actionCounts[index];
+
+        int turnCosts = -freeTurns;
+
+        for (int i = 0; i < actionCount; i++) {
+            final int action = action(packedActions, i);
+
+            if (actionType(action) == TURN) {
+                final Direction newDirection = Direction.of(actionValue(action));
+
+                turnCosts += direction.costTo(newDirection);
+                direction = newDirection;
+            }
+        }
+
+        return Math.max(0, Math.abs(this.totalCosts[index] - speed) - 1) + Math.max(0, turnCosts);
+    }
+
+    /**
+     * @param index the index of the move
+     * @return a new move with the same actions and properties
+     */
+    public Move toMove(int index) {
+        final long packedActions = this.getActions(index);
+        final int enemyEndCell = this.enemyEndCells[index];
+
+        return new Move(
+                Cell.toVector3(this.endCells[index]),
+                enemyEndCell == Cell.NONE ? null : Cell.toVector3(enemyEndCell),
+                Direction.of(this.endDirections[index]),
+                toActions(packedActions, this.actionCounts[index]),
+                this.distances[index],
+                this.totalCosts[index],
+                this.passengers[index],
+                this.pushes[index],
+                this.segmentIndices[index],
+                this.segmentColumns[index],
+                this.goals[index]
+        );
+    }
+
+    /**
+     * @param packedActions the packed actions
+     * @param actionCount the amount of packed actions
+     * @param action the packed action to append
+     * @return the packed actions with the given action appended
+     * @throws IllegalStateException if there is no room for another action
+     */
+    public static long append(long packedActions, int actionCount, int action) {
+        if (actionCount >= MAX_ACTIONS)
+            throw new IllegalStateException("A move can not have more than " + MAX_ACTIONS + " actions");
+
+        return packedActions | ((long) action << (actionCount * ACTION_BITS));
+    }
+
+    public static int turn(@NonNull Direction direction) {
+        return TURN | (direction.ordinal() << 2);
+    }
+
+    public static int forward(int distance) {
+        return FORWARD | (distance << 2);
+    }
+
+    public static int push(@NonNull Direction direction) {
+        return PUSH | (direction.ordinal() << 2);
+    }
+
+    /**
+     * @param packedActions the packed actions
+     * @param index the index of the action
+     * @return the packed action at the given index
+     */
+    public static int action(long packedActions, int index) {
+        return (int) (packedActions >>> (index * ACTION_BITS)) & ACTION_MASK;
+    }
+
+    public static int actionType(int action) {
+        return action & 3;
+    }
+
+    /**
+     * @param action the packed action
+     * @return the direction ordinal of a turn or push, or the distance of a forward action
+     */
+    public static int actionValue(int action) {
+        return action >>> 2;
+    }
+
+    /**
+     * @param packedActions the packed actions
+     * @param actionCount the amount of packed actions
+     * @return the unpacked actions
+     */
+    public static List<Action> toActions(long packedActions, int actionCount) {
+        final List<Action> actions = new ArrayList<>(actionCount);
+
+        for (int i = 0; i < actionCount; i++) {
+            final int action = action(packedActions, i);
+            final int value = actionValue(action);
+
+            actions.add(switch (actionType(action)) {
+                case TURN -> ActionFactory.turn(Direction.of(value));
+                case FORWARD -> ActionFactory.forward(value);
+                case PUSH -> ActionFactory.push(Direction.of(value));
+                default -> throw new IllegalStateException("Unknown action type: " + actionType(action));
+            });
+        }
+
+        return actions;
+    }
+
+    /**
+     * Packs the turns, forward actions and pushes of the given actions.
+     * Velocity changes are skipped, the acceleration of a move is implied by its total cost.
+     *
+     * @param actions the actions to pack
+     * @return the packed actions
+     * @throws IllegalStateException if there are more than {@link #MAX_ACTIONS} actions to pack
+     */
+    public static long pack(@NonNull List<Action> actions) {
+        long packedActions = 0;
+        int actionCount = 0;
+
+        for (Action action : actions) {
+            final int packedAction;
+
+            if(action instanceof Turn turn)
+                packedAction = turn(turn.getDirection());
+            else if(action instanceof Forward forward)
+                packedAction = forward(forward.getDistance());
+            else if(action instanceof Push push)
+                packedAction = push(push.getDirection());
+            else
+                continue;
+
+            packedActions = append(packedActions, actionCount++, packedAction);
+        }
+
+        return packedActions;
+    }
+
+    /**
+     * @param packedActions the packed actions
+     * @return the amount of packed actions, packed actions are never 0 so the first empty slot ends them
+     */
+    public static int actionCount(long packedActions) {
+        int actionCount = 0;
+
+        while (actionCount < MAX_ACTIONS && action(packedActions, actionCount) != 0)
+            actionCount++;
+
+        return actionCount;
+    }
+
+    private void set(int index,
+                     long actions,
+                     int actionCount,
+                     int endCell,
+                     int enemyEndCell,
+                     Direction endDirection,
+                     int distance,
+                     int totalCost,
+                     int turnCost,
+                     int passengers,
+                     int pushes,
+                     int segmentIndex,
+                     int segmentColumn,
+                     boolean goal) {
+        this.actions[index] = actions;
+        this.actionCounts[index] = (byte) actionCount;
+        this.endCells[index] = endCell;
+        this.enemyEndCells[index] = enemyEndCell;
+        this.endDirections[index] = (byte) endDirection.ordinal();
+        this.distances[index] = (byte) distance;
+        this.totalCosts[index] = (byte) totalCost;
+        this.turnCosts[index] = (byte) turnCost;
+        this.passengers[index] = (byte) passengers;
+        this.pushes[index] = (byte) pushes;
+        this.segmentIndices[index] = (byte) segmentIndex;
+        this.segmentColumns[index] = (byte) segmentColumn;
+        this.goals[index] = goal;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+
+        return index;
+    }
+
+    private void allocate(int capacity) {
+        this.actions = new long[capacity];
+        this.actionCounts = new byte[capacity];
+        this.endCells = new int[capacity];
+        this.enemyEndCells = new int[capacity];
+        this.endDirections = new byte[capacity];
+        this.distances = new byte[capacity];
+        this.totalCosts = new byte[capacity];
+        this.turnCosts = new byte[capacity];
+        this.passengers = new byte[capacity];
+        this.pushes = new byte[capacity];
+        this.segmentIndices = new byte[capacity];
+        this.segmentColumns = new byte[capacity];
+        this.goals = new boolean[capacity];
+        this.table = new int[Integer.highestOneBit(capacity) << 2];
+    }
+
+    private void grow() {
+        final int capacity = this.actions.length * 2;
+
+        this.actions = Arrays.copyOf(this.actions, capacity);
+        this.actionCounts = Arrays.copyOf(this.actionCounts, capacity);
+        this.endCells = Arrays.copyOf(this.endCells, capacity);
+        this.enemyEndCells = Arrays.copyOf(this.enemyEndCells, capacity);
+        this.endDirections = Arrays.copyOf(this.endDirections, capacity);
+        this.distances = Arrays.copyOf(this.distances, capacity);
+        this.totalCosts = Arrays.copyOf(this.totalCosts, capacity);
+        this.turnCosts = Arrays.copyOf(this.turnCosts, capacity);
+        this.passengers = Arrays.copyOf(this.passengers, capacity);
+        this.pushes = Arrays.copyOf(this.pushes, capacity);
+        this.segmentIndices = Arrays.copyOf(this.segmentIndices, capacity);
+        this.segmentColumns = Arrays.copyOf(this.segmentColumns, capacity);
+        this.goals = Arrays.copyOf(this.goals, capacity);
+        this.table = new int[Integer.highestOneBit(capacity) << 2];
+
+        // rehash the existing moves into the larger table
+        final int mask = this.table.length - 1;
+
+        for (int index = 0; index < this.size; index++) {
+            int slot = hash(this.endCells[index], this.enemyEndCells[index], this.endDirections[index],
+                    this.totalCosts[index], this.pushes[index]) & mask;
+
+            while (this.table[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            this.table[slot] = index + 1;
+        }
+    }
+
+    private static int hash(int endCell, int enemyEndCell, int endDirection, int totalCost, int pushes) {
+        long hash = ((long) endCell << 32 | (enemyEndCell & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        hash ^= (pushes << 8) | (endDirection << 5) | totalCost;
+        hash *= 0xBF58476D1CE4E5B9L;
+
+        return (int) (hash ^ (hash >>> 31));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the moves of a {@link MoveBuffer} in heuristic order, see {@link MoveBuffer#iterator()}.
+ * Moves are only materialized when they are requested, so callers that stop early skip the remaining moves entirely.
+ */
+public class MoveIterator implements Iterator<Move> {
+
+    private final MoveBuffer buffer;
+    private final long[] order;
+    private final int modificationCount;
+    private int position = 0;
+
+    /**
+     * @param buffer the buffer to iterate
+     * @param order the sort keys, the lower 32 bits of each key are the buffer index
+     * @param modificationCount the modification count of the buffer when the order was created
+     */
+    MoveIterator(MoveBuffer buffer, long[] order, int modificationCount) {
+        this.buffer = buffer;
+        this.order = order;
+        this.modificationCount = modificationCount;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.position < this.order.length;
+    }
+
+    /**
+     * @return the materialized next move
+     * @throws NoSuchElementException if there are no more moves
+     * @throws ConcurrentModificationException if the buffer was changed after the iterator was created
+     */
+    @Override
+    public Move next() {
+        return this.buffer.toMove(this.nextIndex());
+    }
+
+    /**
+     * @return the buffer index of the next move, allows reading the move without materializing it
+     * @throws NoSuchElementException if there are no more moves
+     * @throws ConcurrentModificationException if the buffer was changed after the iterator was created
+     */
+    public int nextIndex() {
+        if(!this.hasNext())
+            throw new NoSuchElementException();
+
+        if(this.buffer.getModificationCount() != this.modificationCount)
+            throw new ConcurrentModificationException();
+
+        return (int) this.order[this.position++];
+    }
+
+    /**
+     * @return the amount of moves that were not returned yet
+     */
+    public int remaining() {
+        return this.order.length - this.position;
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.XMLProtocolPacket;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Position;
+import de.teamgruen.sc.sdk.protocol.data.ShipData;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import de.teamgruen.sc.sdk.protocol.data.board.FieldArray;
+import de.teamgruen.sc.sdk.protocol.data.board.SegmentData;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.Field;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldFactory;
+import de.teamgruen.sc.sdk.protocol.room.RoomPacket;
+import de.teamgruen.sc.sdk.protocol.room.messages.MementoMessage;
+import de.teamgruen.sc.sdk.protocol.serialization.PacketSerializationUtil;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Counts the leaf nodes of the move generation tree to a fixed depth, alternating the teams every ply.
+ * Every generated move is applied and undone on the given state, so the counts cover the move generator as well as
+ * {@link GameState#apply(Team, Move)}. Stored counts detect generator regressions, the timing its throughput.
+ */
+public class Perft {
+
+    private static final int SEGMENTS = 8, COLUMNS = 4, ROWS = 5;
+    /**
+     * The segment directions a random board may turn into, the board never turns back towards the start
+     */
+    private static final Direction[] SEGMENT_DIRECTIONS = { Direction.UP_RIGHT, Direction.RIGHT, Direction.DOWN_RIGHT };
+
+    private final GameState gameState;
+    private MoveBuffer[] buffers = new MoveBuffer[0];
+
+    public Perft(@NonNull GameState gameState) {
+        this.gameState = gameState;
+    }
+
+    /**
+     * Counts the leaf nodes and measures the elapsed time.
+     *
+     * @param depth the amount of plies to search
+     * @return the result of the run
+     * @throws IllegalArgumentException if the depth is negative
+     * @throws IllegalStateException if the current team or a ship position is unknown
+     */
+    public Result run(int depth) {
+        final long start = System.nanoTime();
+        final long nodes = this.count(depth);
+
+        return new Result(depth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the leaf nodes of the move generation tree, starting with the current team of the state.
+     * A ship without any moves ends its branch before the given depth and does not contribute any leaves.
+     *
+     * @param depth the amount of plies to search
+     * @return the amount of leaf nodes
+     * @throws IllegalArgumentException if the depth is negative
+     * @throws IllegalStateException if the current team or a ship position is unknown
+     */
+    public long count(int depth) {
+        if(depth < 0)
+            throw new IllegalArgumentException("Depth must not be negative: " + depth);
+
+        if(this.gameState.getCurrentTeam() == null)
+            throw new IllegalStateException("Current team is unknown");
+
+        if(this.buffers.length < depth) {
+            final int length = this.buffers.length;
+            this.buffers = Arrays.copyOf(this.buffers, depth);
+
+            for (int i = length; i < depth; i++)
+                this.buffers[i] = new MoveBuffer();
+        }
+
+        return this.count(this.gameState.getCurrentTeam(), depth);
+    }
+
+    private long count(Team team, int depth) {
+        if(depth == 0)
+            return 1;
+
+        final MoveBuffer buffer = this.buffers[depth - 1];
+        final int moveCount = this.gameState.getMoves(buffer, team);
+
+        if(depth == 1)
+            return moveCount;
+
+        long nodes = 0;
+
+        for (int i = 0; i < moveCount; i++) {
+            // the child plies reuse the deeper buffers, so this buffer stays intact
+            this.gameState.apply(team, buffer.toMove(i));
+            nodes += this.count(team.getOpponent(), depth - 1);
+            this.gameState.undo();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Creates a game state from a recorded memento, the player team is the current team of the memento.
+     *
+     * @param xml the XML of the room packet containing the memento
+     * @return the game state of the memento
+     * @throws IllegalArgumentException if the packet does not contain a memento
+     * @throws de.teamgruen.sc.sdk.protocol.exceptions.DeserializationException if the XML could not be deserialized
+     */
+    public static GameState fromMemento(@NonNull String xml) {
+        final XMLProtocolPacket packet = PacketSerializationUtil.deserializeXML("room", xml);
+
+        if(!(packet instanceof RoomPacket roomPacket) || !(roomPacket.getData() instanceof MementoMessage message))
+            throw new IllegalArgumentException("Packet does not contain a memento");
+
+        final GameState gameState = new GameState();
+        gameState.update(message.getState());
+        gameState.setPlayerTeam(gameState.getCurrentTeam());
+        gameState.setGamePhase(GamePhase.RUNNING);
+
+        return gameState;
+    }
+
+    /**
+     * Creates a game state on a randomly generated board with all segments revealed.
+     * Islands and passengers are only placed outside the first segment, so the ships always start on water.
+     *
+     * @param seed the seed of the generator, equal seeds create equal boards
+     * @return the game state of the random board
+     */
+    public static GameState randomState(long seed) {
+        final Random random = new Random(seed);
+        final List<SegmentData> segments = new ArrayList<>();
+        Direction direction = Direction.RIGHT;
+        int q = 0, r = 0;
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            if(i > 0) {
+                direction = direction == Direction.RIGHT
+                        ? SEGMENT_DIRECTIONS[random.nextInt(SEGMENT_DIRECTIONS.length)]
+                        : random.nextBoolean() ? direction : Direction.RIGHT;
+                q += direction.getQ() * COLUMNS;
+                r += direction.getR() * COLUMNS;
+            }
+
+            final List<FieldArray> columns = new ArrayList<>();
+            final int passengerColumn = random.nextInt(COLUMNS), passengerRow = random.nextInt(ROWS);
+
+            for (int column = 0; column < COLUMNS; column++) {
+                final List<Field> fields = new ArrayList<>();
+
+                for (int row = 0; row < ROWS; row++) {
+                    if(i == SEGMENTS - 1 && column == COLUMNS - 1)
+                        fields.add(FieldFactory.goal());
+                    else if(i == 0)
+                        fields.add(FieldFactory.water());
+                    else if(column == passengerColumn && row == passengerRow)
+                        fields.add(FieldFactory.passenger(Direction.of(random.nextInt(Direction.COUNT)), 1));
+                    else
+                        fields.add(random.nextInt(10) == 0 ? FieldFactory.island() : FieldFactory.water());
+                }
+
+                columns.add(new FieldArray(fields));
+            }
+
+            final SegmentData segment = new SegmentData();
+            segment.setCenter(new Position(q, r, -q - r));
+            segment.setDirection(direction);
+            segment.setColumns(columns);
+            segments.add(segment);
+        }
+
+        final GameState gameState = new GameState();
+        gameState.getBoard().setNextSegmentDirection(direction);
+        gameState.getBoard().updateSegments(segments);
+        gameState.updateShips(List.of(
+                new ShipData(Team.ONE, Direction.RIGHT, 1, 6, 0, 1, 0, false, new Position(-1, -1, 2)),
+                new ShipData(Team.TWO, Direction.RIGHT, 1, 6, 0, 1, 0, false, new Position(-2, 1, 1))
+        ));
+        gameState.setPlayerTeam(Team.ONE);
+        gameState.setCurrentTeam(Team.ONE);
+        gameState.setGamePhase(GamePhase.RUNNING);
+
+        return gameState;
+    }
+
+    /**
+     * @param depth the searched depth
+     * @param nodes the amount of leaf nodes
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public record Result(int depth, long nodes, long nanos) {
+
+        /**
+         * @return the leaf nodes per second, 0 if no time was measured
+         */
+        public long getNodesPerSecond() {
+            return this.nanos > 0 ? (long) (this.nodes * 1_000_000_000.0 / this.nanos) : 0;
+        }
+
+    }
+
+}
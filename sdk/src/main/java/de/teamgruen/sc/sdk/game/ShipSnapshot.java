@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.NonNull;
+
+/**
+ * Immutable copy of the state of a ship, see {@link GameSnapshot}.
+ *
+ * @param team the team of the ship
+ * @param cell the packed position of the ship or {@link Cell#NONE} if it is unknown
+ * @param direction the direction of the ship
+ * @param speed the speed of the ship
+ * @param coal the remaining coal of the ship
+ * @param freeTurns the amount of free turns
+ * @param passengers the amount of passengers on the ship
+ * @param points the points of the ship
+ * @param stuck whether the ship is stuck
+ */
+public record ShipSnapshot(@NonNull Team team,
+                           int cell,
+                           @NonNull Direction direction,
+                           int speed,
+                           int coal,
+                           int freeTurns,
+                           int passengers,
+                           int points,
+                           boolean stuck) {
+
+    /**
+     * @param ship the ship to copy
+     * @return the snapshot of the ship
+     */
+    public static ShipSnapshot of(@NonNull Ship ship) {
+        return new ShipSnapshot(
+                ship.getTeam(),
+                Cell.of(ship.getPosition()),
+                ship.getDirection(),
+                ship.getSpeed(),
+                ship.getCoal(),
+                ship.getFreeTurns(),
+                ship.getPassengers(),
+                ship.getPoints(),
+                ship.isStuck()
+        );
+    }
+
+    /**
+     * Creates a mutable ship with the values of the snapshot, changes to it do not affect the snapshot.
+     *
+     * @return the new ship
+     */
+    public Ship toShip() {
+        final Ship ship = new Ship(this.team);
+        ship.setPosition(this.cell != Cell.NONE ? Cell.toVector3(this.cell) : null);
+        ship.setDirection(this.direction);
+        ship.setSpeed(this.speed);
+        ship.setCoal(this.coal);
+        ship.setFreeTurns(this.freeTurns);
+        ship.setPassengers(this.passengers);
+        ship.setPoints(this.points);
+        ship.setStuck(this.stuck);
+
+        return ship;
+    }
+
+    /**
+     * @return the combined {@link Zobrist} key of the ship, equal to {@link Zobrist#ship(Ship)}
+     */
+    public long hash() {
+        return Zobrist.position(this.team, this.cell)
+                ^ Zobrist.direction(this.team, this.direction)
+                ^ Zobrist.speed(this.team, this.speed)
+                ^ Zobrist.coal(this.team, this.coal)
+                ^ Zobrist.freeTurns(this.team, this.freeTurns)
+                ^ Zobrist.passengers(this.team, this.passengers);
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free table of search results, stored in four long arrays with one slot per entry.
+ * An entry holds the depth it was searched with, its score and the best following move as packed actions,
+ * see {@link MoveBuffer#pack(java.util.List)}.
+ * <p>
+ * Entries are written without locks. Every word is read and written with opaque access, so a single word is never torn,
+ * but the four words of a slot are not updated together. The stored key is the key XOR the other words of the entry,
+ * so a slot mixed from two concurrent writes fails the verification on reading, unless the words happen to XOR
+ * to the probed key, and counts as a miss.
+ * <p>
+ * Every key maps to a bucket of two slots. The first slot keeps the deeper entry of the current generation,
+ * the second slot is always replaced, so shallow entries can not displace the expensive deep ones.
+ * Entries of older generations are never returned and are replaced first.
+ */
+public class TranspositionTable {
+
+    /**
+     * The size of an entry in bytes, one long for each of the key, score, data and move arrays
+     */
+    public static final int ENTRY_BYTES = 4 * Long.BYTES;
+
+    private static final int DEPTH_MASK = 0xFF;
+
+    private final AtomicLongArray keys, scores, data, moves;
+    private final int mask;
+    private final AtomicInteger generation = new AtomicInteger();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), collisions = new LongAdder(), stores = new LongAdder();
+
+    /**
+     * @param capacityBits the binary logarithm of the amount of entries, at least 1
+     * @throws IllegalArgumentException if the capacity is out of range
+     */
+    public TranspositionTable(int capacityBits) {
+        if(capacityBits < 1 || capacityBits > 28)
+            throw new IllegalArgumentException("Illegal capacity bits: " + capacityBits);
+
+        final int capacity = 1 << capacityBits;
+
+        this.keys = new AtomicLongArray(capacity);
+        this.scores = new AtomicLongArray(capacity);
+        this.data = new AtomicLongArray(capacity);
+        this.moves = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param megabytes the maximum size of the table in mebibytes, at least 1
+     * @return the largest table fitting into the given size
+     * @throws IllegalArgumentException if the size is out of range
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        if(megabytes < 1 || megabytes > 4096)
+            throw new IllegalArgumentException("Illegal table size: " + megabytes + " MiB");
+
+        final long entries = (megabytes * 1024L * 1024L) / ENTRY_BYTES;
+
+        return new TranspositionTable(Math.min(28, 63 - Long.numberOfLeadingZeros(entries)));
+    }
+
+    /**
+     * Starts a new generation, the entries of all previous generations are no longer returned.
+     * Every search with different fixed inputs, for example another game state, needs its own generation.
+     *
+     * @return the new generation
+     */
+    public int newGeneration() {
+        int next;
+
+        // 0 marks empty slots
+        while ((next = this.generation.incrementAndGet()) == 0);
+
+        return next;
+    }
+
+    /**
+     * @param key the key of the searched state
+     * @param generation the generation of the search
+     * @param depth the minimum depth of the entry
+     * @return the entry of the key or null if the key is not part of the table or was searched less deep
+     */
+    public Entry probe(long key, int generation, int depth) {
+        final int bucket = this.bucket(key);
+        boolean occupied = false;
+
+        for (int slot = bucket; slot <= bucket + 1; slot++) {
+            final long score = this.scores.getOpaque(slot), data = this.data.getOpaque(slot), move = this.moves.getOpaque(slot);
+
+            if(generation(data) != generation)
+                continue;
+
+            if((this.keys.getOpaque(slot) ^ score ^ data ^ move) == key) {
+                if(depth(data) < depth)
+                    break;
+
+                this.hits.increment();
+
+                return new Entry(depth(data), Double.longBitsToDouble(score), move);
+            }
+
+            occupied = true;
+        }
+
+        this.misses.increment();
+
+        if(occupied)
+            this.collisions.increment();
+
+        return null;
+    }
+
+    /**
+     * Stores an entry, replacing the entry of the same key if it was searched at most as deep.
+     *
+     * @param key the key of the searched state
+     * @param generation the generation of the search
+     * @param depth the searched depth, 0 to 255
+     * @param score the score of the state
+     * @param bestMove the packed actions of the best following move
+     */
+    public void store(long key, int generation, int depth, double score, long bestMove) {
+        final int bucket = this.bucket(key);
+        final long data = ((long) generation << 32) | (depth & DEPTH_MASK);
+        int slot = -1;
+
+        for (int i = bucket; i <= bucket + 1; i++) {
+            final long storedData = this.data.getOpaque(i);
+
+            if(generation(storedData) == generation
+                    && (this.keys.getOpaque(i) ^ this.scores.getOpaque(i) ^ storedData ^ this.moves.getOpaque(i)) == key) {
+                if(depth < depth(storedData))
+                    return;
+
+                slot = i;
+                break;
+            }
+        }
+
+        if(slot == -1) {
+            final long firstData = this.data.getOpaque(bucket);
+
+            slot = generation(firstData) != generation || depth >= depth(firstData) ? bucket : bucket + 1;
+        }
+
+        final long scoreBits = Double.doubleToRawLongBits(score);
+
+        this.scores.setOpaque(slot, scoreBits);
+        this.data.setOpaque(slot, data);
+        this.moves.setOpaque(slot, bestMove);
+        this.keys.setOpaque(slot, key ^ scoreBits ^ data ^ bestMove);
+        this.stores.increment();
+    }
+
+    /**
+     * @return the amount of entries the table can hold
+     */
+    public int getCapacity() {
+        return this.keys.length();
+    }
+
+    /**
+     * @return the amount of probes answered by the table since the last {@link #resetStats()}
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the amount of probes not answered by the table since the last {@link #resetStats()}
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return the amount of misses whose bucket was occupied by other keys of the same generation
+     */
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    /**
+     * @return the share of probes answered by the table, 0 if there were none
+     */
+    public double getHitRate() {
+        final long hits = this.getHits(), total = hits + this.getMisses();
+
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    public void resetStats() {
+        this.hits.reset();
+        this.misses.reset();
+        this.collisions.reset();
+        this.stores.reset();
+    }
+
+    private int bucket(long key) {
+        // fold the high bits first, the multiplication only carries bits upwards
+        return (int) (((key ^ (key >>> 32)) * 0x9E3779B97F4A7C15L) >>> 32) & this.mask & ~1;
+    }
+
+    private static int depth(long data) {
+        return (int) data & DEPTH_MASK;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 32);
+    }
+
+    /**
+     * @param depth the depth the entry was searched with
+     * @param score the score of the entry
+     * @param bestMove the packed actions of the best following move, see {@link MoveBuffer#toActions(long, int)}
+     */
+    public record Entry(int depth, double score, long bestMove) {
+    }
+
+}
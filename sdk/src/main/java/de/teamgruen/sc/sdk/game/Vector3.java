@@ -5,6 +5,7 @@
 
 package de.teamgruen.sc.sdk.game;
 
+import de.teamgruen.sc.sdk.protocol.data.Direction;
 import lombok.*;
 
 @Getter
@@ -15,6 +16,14 @@ public class Vector3 {
 
     private int q, r, s;
 
+    public Vector3 set(int q, int r, int s) {
+        this.q = q;
+        this.r = r;
+        this.s = s;
+
+        return this;
+    }
+
     public Vector3 add(@NonNull Vector3 delta) {
         this.q += delta.q;
         this.r += delta.r;
@@ -23,6 +32,18 @@ public class Vector3 {
         return this;
     }
 
+    public Vector3 add(@NonNull Direction direction) {
+        return this.add(direction, 1);
+    }
+
+    public Vector3 add(@NonNull Direction direction, int times) {
+        this.q += direction.getQ() * times;
+        this.r += direction.getR() * times;
+        this.s += direction.getS() * times;
+
+        return this;
+    }
+
     public Vector3 subtract(@NonNull Vector3 delta) {
         final Vector3 vector = this.copy();
         vector.q -= delta.q;
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import lombok.NonNull;
+
+/**
+ * Zobrist keys for the game state. Every feature value has a fixed random 64-bit key,
+ * the hash of a state is the XOR of the keys of all its feature values, so changing a single feature
+ * only requires XOR-ing out the old key and XOR-ing in the new one.
+ */
+public class Zobrist {
+
+    /**
+     * The amount of distinct keys per scalar ship feature, larger values wrap around
+     */
+    private static final int SCALAR_VALUES = 32;
+    private static final int SPEED = 0, COAL = 1, FREE_TURNS = 2, PASSENGERS = 3;
+    private static final long SEED = 0x5EED_C0FF_EE15_600DL;
+
+    private static final long[][] POSITIONS = new long[Team.values().length][Cell.COUNT];
+    private static final long[][] DIRECTIONS = new long[Team.values().length][Direction.values().length];
+    private static final long[][][] SCALARS = new long[Team.values().length][4][SCALAR_VALUES];
+    private static final long PASSENGER_FIELD;
+
+    static {
+        long state = SEED;
+
+        for (int team = 0; team < POSITIONS.length; team++) {
+            for (int cell = 0; cell < Cell.COUNT; cell++)
+                POSITIONS[team][cell] = mix(state += 0x9E3779B97F4A7C15L);
+
+            for (int direction = 0; direction < DIRECTIONS[team].length; direction++)
+                DIRECTIONS[team][direction] = mix(state += 0x9E3779B97F4A7C15L);
+
+            for (long[] feature : SCALARS[team]) {
+                for (int value = 0; value < SCALAR_VALUES; value++)
+                    feature[value] = mix(state += 0x9E3779B97F4A7C15L);
+            }
+        }
+
+        PASSENGER_FIELD = mix(state + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param team the team of the ship
+     * @param cell the packed position of the ship
+     * @return the key of the position or 0 if the position is unknown
+     */
+    public static long position(@NonNull Team team, int cell) {
+        return Cell.isValid(cell) ? POSITIONS[team.ordinal()][cell] : 0;
+    }
+
+    public static long direction(@NonNull Team team, @NonNull Direction direction) {
+        return DIRECTIONS[team.ordinal()][direction.ordinal()];
+    }
+
+    public static long speed(@NonNull Team team, int speed) {
+        return scalar(team, SPEED, speed);
+    }
+
+    public static long coal(@NonNull Team team, int coal) {
+        return scalar(team, COAL, coal);
+    }
+
+    public static long freeTurns(@NonNull Team team, int freeTurns) {
+        return scalar(team, FREE_TURNS, freeTurns);
+    }
+
+    public static long passengers(@NonNull Team team, int passengers) {
+        return scalar(team, PASSENGERS, passengers);
+    }
+
+    /**
+     * @param cell the packed position of the passenger field
+     * @param passengers the amount of passengers on the field
+     * @return the key of the passenger count or 0 if there are no passengers
+     */
+    public static long passengerField(int cell, int passengers) {
+        return passengers == 0 ? 0 : mix(PASSENGER_FIELD ^ ((long) cell << 8 | (passengers & 0xFF)));
+    }
+
+    /**
+     * @param ship the ship
+     * @return the combined key of all hashed features of the ship
+     */
+    public static long ship(@NonNull Ship ship) {
+        final Team team = ship.getTeam();
+
+        return position(team, Cell.of(ship.getPosition()))
+                ^ direction(team, ship.getDirection())
+                ^ speed(team, ship.getSpeed())
+                ^ coal(team, ship.getCoal())
+                ^ freeTurns(team, ship.getFreeTurns())
+                ^ passengers(team, ship.getPassengers());
+    }
+
+    private static long scalar(Team team, int feature, int value) {
+        return SCALARS[team.ordinal()][feature][Math.floorMod(value, SCALAR_VALUES)];
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
+
+}
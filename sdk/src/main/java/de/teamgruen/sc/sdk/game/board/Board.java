@@ -6,48 +6,204 @@
 package de.teamgruen.sc.sdk.game.board;
 
 import de.teamgruen.sc.sdk.game.AdvanceInfo;
+import de.teamgruen.sc.sdk.game.Cell;
+import de.teamgruen.sc.sdk.game.CellSet;
 import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
 import de.teamgruen.sc.sdk.game.Vector3;
+import de.teamgruen.sc.sdk.game.Zobrist;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Position;
+import de.teamgruen.sc.sdk.protocol.data.board.FieldArray;
 import de.teamgruen.sc.sdk.protocol.data.board.SegmentData;
 import de.teamgruen.sc.sdk.protocol.data.board.fields.Field;
-import de.teamgruen.sc.sdk.protocol.data.board.fields.Goal;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldCode;
 import de.teamgruen.sc.sdk.protocol.data.board.fields.Passenger;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Data
 public class Board {
 
+    private static final AdvanceInfo.Result[] ADVANCE_RESULTS = AdvanceInfo.Result.values();
+    /**
+     * The maximum amount of single turns needed to reach any direction.
+     */
+    private static final int MAX_ROTATIONS = Direction.COUNT / 2;
+    private static final int ALL_DIRECTIONS = (1 << Direction.COUNT) - 1;
+    /**
+     * Advance cache entries consist of a 42 bit key, a 9 bit result and a 13 bit generation
+     */
+    private static final int ADVANCE_CACHE_BITS = 12;
+    private static final long ADVANCE_KEY_MASK = (1L << 42) - 1;
+    private static final int CACHE_GENERATION_LIMIT = 1 << 13;
+    /**
+     * Push cache entries consist of a 26 bit key, a 3 bit result and a 15 bit generation
+     */
+    private static final int PUSH_CACHE_BITS = 10;
+    private static final long PUSH_KEY_MASK = (1L << 26) - 1;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] grid = new byte[Cell.COUNT];
+    /**
+     * The passenger field views, aligned with {@link #passengerFieldCells}
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<Passenger> passengerViews = new ArrayList<>();
     private final Map<Vector3, Field> fields = new HashMap<>();
-    private final Map<Vector3, Integer> segmentIndices = new HashMap<>();
-    private final Map<Vector3, Integer> segmentColumns = new HashMap<>();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] segmentIndexCells = new byte[Cell.COUNT];
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] segmentColumnCells = new byte[Cell.COUNT];
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CellSet counterCurrentCells = new CellSet();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CellSet passengerFieldCells = new CellSet();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CellSet passengerCells = new CellSet();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CellSet collectCells = new CellSet();
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CellSet goalCells = new CellSet();
+    /**
+     * The directions in which a neighbouring collect or goal cell lies, per cell.
+     * Most cells have none, so the next round checks of a ship can return without looking at its neighbours.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] collectDirections = new byte[Cell.COUNT], goalDirections = new byte[Cell.COUNT];
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<Vector3, Field> passengerFields = null;
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Map<Vector3, Field> goalFields = Collections.emptyMap();
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BoardChanges lastChanges = new BoardChanges(0, 0, new CellSet());
+    /**
+     * XOR of the {@link Zobrist#passengerField(int, int)} keys of all known passenger fields
+     */
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private long passengerHash = 0;
+    /**
+     * The amount of free fields plus one in front of each revealed cell per direction, 0 if not precomputed
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] rayDistances = new byte[Cell.COUNT * Direction.COUNT];
+    /**
+     * The offset of the first counter current field in front of each revealed cell per direction, 0 if there is none
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final byte[] counterCurrentOffsets = new byte[Cell.COUNT * Direction.COUNT];
+    /**
+     * Direct mapped cache of advance results, entries of older generations are ignored.
+     * Every entry is a single long read and written with opaque access, so concurrent move generation threads
+     * never see torn entries, only a missing or replaced one. The board itself must not be changed while
+     * move generation is running on other threads, a search has to finish before the next update.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final AtomicLongArray advanceCache = new AtomicLongArray(1 << ADVANCE_CACHE_BITS);
+    /**
+     * Volatile, so the threads of a search started after an update see the new generation
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile int cacheGeneration = 1;
+    /**
+     * Generation of the push directions that depend on the passengers, advanced by every passenger change
+     * in addition to every memento
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile int passengerCacheGeneration = 1;
+    /**
+     * Direct mapped cache of the best push directions, shares the generation of the {@link #advanceCache}
+     * unless the direction depends on the passengers
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final AtomicLongArray pushCache = new AtomicLongArray(1 << PUSH_CACHE_BITS);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final LongAdder advanceCacheHits = new LongAdder(), advanceCacheMisses = new LongAdder();
     private final List<Vector3> counterCurrent = new ArrayList<>();
     private final List<Vector3> nextFieldsPositions = new ArrayList<>();
     private final List<BoardSegment> segments = new ArrayList<>();
     private Direction nextSegmentDirection;
 
+    public Board() {
+        Arrays.fill(this.segmentIndexCells, (byte) -1);
+        Arrays.fill(this.segmentColumnCells, (byte) -1);
+    }
+
     /**
      * @param fieldPosition the position to check
      * @return the index of the segment the field is part of
      * @throws IllegalArgumentException if the field is not part of any segment
      */
     public int getSegmentIndex(@NonNull Vector3 fieldPosition) {
-        this.segmentIndices.computeIfAbsent(fieldPosition, (position) -> {
-            for (int i = 0; i < this.segments.size(); i++) {
-                if(this.segments.get(i).fields().containsKey(fieldPosition))
-                    return i;
-            }
+        return this.getSegmentIndex(Cell.of(fieldPosition));
+    }
 
-            return null;
-        });
+    /**
+     * @param cell the packed position to check
+     * @return the index of the segment the field is part of
+     * @throws IllegalArgumentException if the field is not part of any segment
+     */
+    public int getSegmentIndex(int cell) {
+        final int segmentIndex = Cell.isValid(cell) ? this.segmentIndexCells[cell] : -1;
 
-        return Optional.ofNullable(this.segmentIndices.get(fieldPosition))
-                .orElseThrow(() -> new IllegalArgumentException("Field is not part of any segment"));
+        if(segmentIndex == -1)
+            throw new IllegalArgumentException("Field is not part of any segment");
+
+        return segmentIndex;
     }
 
     /**
@@ -56,19 +212,21 @@ public class Board {
      * @throws IllegalArgumentException if the field is not part of any segment
      */
     public int getSegmentColumn(@NonNull Vector3 fieldPosition) {
-        this.segmentColumns.computeIfAbsent(fieldPosition, (position) -> {
-            for (BoardSegment segment : this.segments) {
-                final int index = List.copyOf(segment.fields().keySet()).indexOf(fieldPosition);
+        return this.getSegmentColumn(Cell.of(fieldPosition));
+    }
 
-                if(index != -1)
-                    return index / 5;
-            }
+    /**
+     * @param cell the packed position to check
+     * @return the column of the segment the field is part of
+     * @throws IllegalArgumentException if the field is not part of any segment
+     */
+    public int getSegmentColumn(int cell) {
+        final int segmentColumn = Cell.isValid(cell) ? this.segmentColumnCells[cell] : -1;
 
-            return null;
-        });
+        if(segmentColumn == -1)
+            throw new IllegalArgumentException("Field is not part of any segment");
 
-        return Optional.ofNullable(this.segmentColumns.get(fieldPosition))
-                .orElseThrow(() -> new IllegalArgumentException("Field is not part of any segment"));
+        return segmentColumn;
     }
 
     /**
@@ -76,10 +234,17 @@ public class Board {
      * @return the segment position (each column is 1/4 of a segment)
      */
     public double getSegmentPosition(@NonNull Vector3 position) {
-        final int segmentIndex = this.getSegmentIndex(position);
-        final int segmentColumn = this.getSegmentColumn(position);
+        return this.getSegmentProgress(Cell.of(position)) / 4d;
+    }
 
-        return segmentIndex + segmentColumn / 4d;
+    /**
+     * Fixed-point variant of {@link #getSegmentPosition(Vector3)}.
+     *
+     * @param cell the packed position to calculate the segment position for
+     * @return the segment position in columns (4 per segment)
+     */
+    public int getSegmentProgress(int cell) {
+        return this.getSegmentIndex(cell) * 4 + this.getSegmentColumn(cell);
     }
 
     /**
@@ -88,7 +253,18 @@ public class Board {
      * @return the segment distance between the two positions
      */
     public double getSegmentDistance(@NonNull Vector3 position, @NonNull Vector3 otherPosition) {
-        return this.getSegmentPosition(otherPosition) - this.getSegmentPosition(position);
+        return this.getSegmentProgressDistance(Cell.of(position), Cell.of(otherPosition)) / 4d;
+    }
+
+    /**
+     * Fixed-point variant of {@link #getSegmentDistance(Vector3, Vector3)}.
+     *
+     * @param cell the first packed position
+     * @param otherCell the second packed position
+     * @return the segment distance between the two positions in columns (4 per segment)
+     */
+    public int getSegmentProgressDistance(int cell, int otherCell) {
+        return this.getSegmentProgress(otherCell) - this.getSegmentProgress(cell);
     }
 
     /**
@@ -96,9 +272,15 @@ public class Board {
      * @return whether the position is not passable
      */
     public boolean isBlocked(@NonNull Vector3 position) {
-        final Field field = this.getFieldAt(position);
+        return this.isBlocked(Cell.of(position));
+    }
 
-        return field == null || field.isObstacle();
+    /**
+     * @param cell the packed position to check
+     * @return whether the position is not passable
+     */
+    public boolean isBlocked(int cell) {
+        return FieldCode.isObstacle(this.getFieldCode(cell));
     }
 
     /**
@@ -106,7 +288,28 @@ public class Board {
      * @return the field at the given position or null if the field does not exist
      */
     public Field getFieldAt(@NonNull Vector3 position) {
-        return this.fields.get(position);
+        return this.getFieldAt(Cell.of(position));
+    }
+
+    /**
+     * @param cell the packed position to check
+     * @return the field at the given position or null if the field does not exist
+     */
+    public Field getFieldAt(int cell) {
+        final byte code = this.getFieldCode(cell);
+
+        if(FieldCode.isPassenger(code))
+            return this.passengerViews.get(this.passengerFieldCells.indexOf(cell));
+
+        return FieldCode.decode(code);
+    }
+
+    /**
+     * @param cell the packed position to check
+     * @return the packed field at the given position or {@link FieldCode#NONE} if the field does not exist
+     */
+    public byte getFieldCode(int cell) {
+        return Cell.isValid(cell) ? this.grid[cell] : FieldCode.NONE;
     }
 
     /**
@@ -123,20 +326,187 @@ public class Board {
     }
 
     /**
-     * @return all passenger fields with passengers
+     * @return a read-only view of all passenger fields with passengers
      */
     public Map<Vector3, Field> getPassengerFields() {
-        return this.getAllFields(entry ->
-                entry.getValue() instanceof Passenger passenger
-                        && passenger.getPassenger() > 0
-        );
+        if(this.passengerFields == null)
+            this.passengerFields = this.toFieldView(this.passengerCells);
+
+        return this.passengerFields;
     }
 
     /**
-     * @return all goal fields
+     * @return a read-only view of all goal fields
      */
     public Map<Vector3, Field> getGoalFields() {
-        return this.getAllFields(entry -> entry.getValue() instanceof Goal);
+        return this.goalFields;
+    }
+
+    /**
+     * The returned set is maintained by the board and must not be modified.
+     *
+     * @return the packed positions of all passenger fields with passengers
+     */
+    public CellSet getPassengerCells() {
+        return this.passengerCells;
+    }
+
+    /**
+     * The returned set is maintained by the board and must not be modified.
+     *
+     * @return the packed positions from which a passenger can be collected, i.e. the passenger field's position
+     *         plus the passenger's direction, excluding blocked positions
+     */
+    public CellSet getCollectCells() {
+        return this.collectCells;
+    }
+
+    /**
+     * The returned set is maintained by the board and must not be modified.
+     *
+     * @return the packed positions of all goal fields
+     */
+    public CellSet getGoalCells() {
+        return this.goalCells;
+    }
+
+    /**
+     * Sets the passenger count of a passenger field and updates the passenger indices and hash.
+     * Only the collect directions of the field and the push directions that depend on the passengers are updated,
+     * so applying and undoing a pick up keeps the other cached results.
+     *
+     * @param cell the packed position of the passenger field
+     * @param passengers the new amount of passengers
+     * @throws IllegalArgumentException if the field is not a passenger field
+     */
+    public void setPassengers(int cell, int passengers) {
+        final byte code = this.getFieldCode(cell);
+
+        if(!FieldCode.isPassenger(code))
+            throw new IllegalArgumentException("Field is not a passenger field");
+
+        final boolean hadPassengers = FieldCode.getPassengers(code) > 0;
+
+        if(this.updatePassengerCount(cell, passengers) && hadPassengers != passengers > 0) {
+            this.collectPassengerCells();
+
+            final int collectCell = Cell.add(cell, FieldCode.getDirection(code));
+
+            // the collect cell may be shared with another passenger field
+            if(Cell.isValid(collectCell))
+                markNeighbours(this.collectDirections, collectCell, this.collectCells.contains(collectCell));
+
+            this.invalidatePassengerCaches();
+        }
+    }
+
+    /**
+     * Updates the passenger count of a passenger field, its view and the passenger hash.
+     *
+     * @param cell the packed position of the passenger field
+     * @param passengers the new amount of passengers
+     * @return whether the passenger count changed
+     */
+    private boolean updatePassengerCount(int cell, int passengers) {
+        final byte code = this.grid[cell];
+        final int currentPassengers = FieldCode.getPassengers(code);
+
+        if(currentPassengers == passengers)
+            return false;
+
+        this.grid[cell] = FieldCode.withPassengers(code, passengers);
+        this.passengerViews.get(this.passengerFieldCells.indexOf(cell)).setPassenger(passengers);
+        this.passengerHash ^= Zobrist.passengerField(cell, currentPassengers) ^ Zobrist.passengerField(cell, passengers);
+
+        return true;
+    }
+
+    /**
+     * Rebuilds the passenger, collect and goal indices.
+     */
+    private void updateActionFieldIndices() {
+        this.updatePassengerIndices();
+        this.goalFields = this.toFieldView(this.goalCells);
+
+        for (int i = 0; i < this.goalCells.size(); i++)
+            markNeighbours(this.goalDirections, this.goalCells.get(i), true);
+    }
+
+    /**
+     * Rebuilds the passenger and collect indices from all known passenger fields, the passenger field view
+     * is rebuilt lazily.
+     */
+    private void updatePassengerIndices() {
+        for (int i = 0; i < this.collectCells.size(); i++)
+            markNeighbours(this.collectDirections, this.collectCells.get(i), false);
+
+        this.collectPassengerCells();
+
+        for (int i = 0; i < this.collectCells.size(); i++)
+            markNeighbours(this.collectDirections, this.collectCells.get(i), true);
+    }
+
+    /**
+     * Collects the passenger and collect cells in the order of the passenger fields without updating the
+     * collect directions, the passenger field view is rebuilt lazily.
+     */
+    private void collectPassengerCells() {
+        this.passengerCells.clear();
+        this.collectCells.clear();
+
+        for (int i = 0; i < this.passengerFieldCells.size(); i++) {
+            final int cell = this.passengerFieldCells.get(i);
+            final byte code = this.grid[cell];
+
+            if(FieldCode.getPassengers(code) <= 0)
+                continue;
+
+            this.passengerCells.add(cell);
+
+            final int collectCell = Cell.add(cell, FieldCode.getDirection(code));
+
+            if(!this.isBlocked(collectCell))
+                this.collectCells.add(collectCell);
+        }
+
+        this.passengerFields = null;
+    }
+
+    /**
+     * Sets or clears the direction towards the given cell on each of its neighbours.
+     *
+     * @param directions the direction masks per cell
+     * @param cell the packed target cell
+     * @param mark whether to set or to clear the directions
+     */
+    private static void markNeighbours(byte[] directions, int cell, boolean mark) {
+        for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final int neighbourCell = Cell.add(cell, Direction.of(ordinal));
+
+            if(!Cell.isValid(neighbourCell))
+                continue;
+
+            // the neighbour reaches the cell in the opposite direction
+            final int bit = 1 << ((ordinal + MAX_ROTATIONS) % Direction.COUNT);
+
+            directions[neighbourCell] = (byte) (mark ? directions[neighbourCell] | bit : directions[neighbourCell] & ~bit);
+        }
+    }
+
+    /**
+     * @param cells the packed positions
+     * @return a read-only map of the positions and their fields
+     */
+    private Map<Vector3, Field> toFieldView(CellSet cells) {
+        final Map<Vector3, Field> view = new LinkedHashMap<>();
+
+        for (int i = 0; i < cells.size(); i++) {
+            final int cell = cells.get(i);
+
+            view.put(Cell.toVector3(cell), this.getFieldAt(cell));
+        }
+
+        return Collections.unmodifiableMap(view);
     }
 
     /**
@@ -144,20 +514,37 @@ public class Board {
      * @return whether the position is part of the counter current
      */
     public boolean isCounterCurrent(@NonNull Vector3 position) {
-        return this.counterCurrent.contains(position);
+        return this.isCounterCurrent(Cell.of(position));
     }
 
     /**
-     * Updates the counterCurrent list for the current segments
+     * @param cell the packed position to check
+     * @return whether the position is part of the counter current
+     */
+    public boolean isCounterCurrent(int cell) {
+        return this.counterCurrentCells.contains(cell);
+    }
+
+    /**
+     * @return a read-only view of the counter current positions in the order they were added
+     */
+    public List<Vector3> getCounterCurrent() {
+        return Collections.unmodifiableList(this.counterCurrent);
+    }
+
+    /**
+     * Updates the counterCurrent list for the current segments and rebuilds the ray tables
      */
     public void updateCounterCurrent(int startSegment) {
+        this.invalidateCaches();
+
         for (int j = startSegment; j < this.segments.size(); j++) {
             final BoardSegment segment = this.segments.get(j);
-            final Vector3 turnPosition = segment.center().copy();
+            final int turnCell = Cell.of(segment.center());
 
             // add the two fields before the turn
-            this.counterCurrent.add(turnPosition.copy().subtract(segment.direction().toVector3()));
-            this.counterCurrent.add(turnPosition);
+            this.addCounterCurrent(Cell.add(turnCell, segment.direction(), -1));
+            this.addCounterCurrent(turnCell);
 
             // add the next two fields after the turn
             final Direction nextDirection;
@@ -168,10 +555,114 @@ public class Board {
                 nextDirection = this.nextSegmentDirection;
 
             for (int i = 1; i <= 2; i++)
-                this.counterCurrent.add(turnPosition.copy().add(nextDirection.toVector3().multiply(i)));
+                this.addCounterCurrent(Cell.add(turnCell, nextDirection, i));
+        }
+
+        this.updateRays();
+    }
+
+    /**
+     * @param cell the packed start position
+     * @param direction the direction of the ray
+     * @return the amount of free fields in front of the cell or -1 if the cell is not revealed
+     */
+    public int getFreeDistance(int cell, @NonNull Direction direction) {
+        return Cell.isValid(cell) ? this.rayDistances[cell * Direction.COUNT + direction.ordinal()] - 1 : -1;
+    }
+
+    /**
+     * @param cell the packed start position
+     * @param direction the direction of the ray
+     * @return the amount of fields to the first counter current field in front of the cell,
+     *         0 if there is none before the first obstacle or the cell is not revealed
+     */
+    public int getCounterCurrentOffset(int cell, @NonNull Direction direction) {
+        return Cell.isValid(cell) ? this.counterCurrentOffsets[cell * Direction.COUNT + direction.ordinal()] : 0;
+    }
+
+    /**
+     * Rebuilds the free distances and counter current offsets of all revealed cells.
+     * Every ray is walked only once, because the walk stops at the first cell whose ray is already known.
+     */
+    private void updateRays() {
+        final int[] path = new int[Cell.WIDTH + 1];
+
+        for (int cell = 0; cell < Cell.COUNT; cell++) {
+            if(this.segmentIndexCells[cell] != -1)
+                Arrays.fill(this.rayDistances, cell * Direction.COUNT, (cell + 1) * Direction.COUNT, (byte) 0);
+        }
+
+        for (int cell = 0; cell < Cell.COUNT; cell++) {
+            if(this.segmentIndexCells[cell] == -1)
+                continue;
+
+            for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+                if(this.rayDistances[cell * Direction.COUNT + ordinal] == 0)
+                    this.updateRay(cell, ordinal, path);
+            }
+        }
+    }
+
+    private void updateRay(int start, int ordinal, int[] path) {
+        final int offset = Cell.offset(Direction.of(ordinal));
+        int length = 0, cell = start, freeDistance, counterCurrentOffset;
+
+        // walk until the first obstacle or a cell with a known ray
+        while (true) {
+            path[length++] = cell;
+
+            final int nextCell = cell + offset;
+
+            if(this.isBlocked(nextCell)) {
+                freeDistance = 0;
+                counterCurrentOffset = 0;
+                break;
+            }
+
+            final int nextIndex = nextCell * Direction.COUNT + ordinal;
+
+            if(this.rayDistances[nextIndex] != 0) {
+                freeDistance = this.rayDistances[nextIndex];
+                counterCurrentOffset = this.nextCounterCurrentOffset(nextCell, this.counterCurrentOffsets[nextIndex]);
+                break;
+            }
+
+            cell = nextCell;
+        }
+
+        // fill in the walked cells from back to front
+        for (int i = length - 1; i >= 0; i--) {
+            final int index = path[i] * Direction.COUNT + ordinal;
+
+            this.rayDistances[index] = (byte) (freeDistance + 1);
+            this.counterCurrentOffsets[index] = (byte) counterCurrentOffset;
+
+            freeDistance++;
+            counterCurrentOffset = this.nextCounterCurrentOffset(path[i], counterCurrentOffset);
         }
     }
 
+    /**
+     * @param cell the cell in front of the ray start
+     * @param counterCurrentOffset the counter current offset of the given cell
+     * @return the counter current offset of the cell behind the given cell
+     */
+    private int nextCounterCurrentOffset(int cell, int counterCurrentOffset) {
+        if(this.isCounterCurrent(cell))
+            return 1;
+
+        return counterCurrentOffset > 0 ? counterCurrentOffset + 1 : 0;
+    }
+
+    /**
+     * Marks the given cell as counter current, ignoring cells that are already marked.
+     * @param cell the packed position to mark
+     */
+    private void addCounterCurrent(int cell) {
+        if(this.counterCurrentCells.add(cell))
+            this.counterCurrent.add(Cell.toVector3(cell));
+    }
+
     /**
      * Updates the nextFieldsPositions list for the next segment
      */
@@ -190,49 +681,123 @@ public class Board {
     }
 
     /**
-     * Updates the segments and the counterCurrent list
+     * Updates the segments and the counterCurrent list.
+     * Known segments are looked up by their center cell and only their passenger counts are compared,
+     * so the derived indices are only rebuilt if something actually changed.
+     *
      * @param segmentDataList the new segments
+     * @return the changes applied to the board
      */
-    public void updateSegments(List<SegmentData> segmentDataList) {
+    public BoardChanges updateSegments(List<SegmentData> segmentDataList) {
         final int nextSegmentIndex = this.segments.size();
+        final CellSet changedPassengerCells = new CellSet();
 
-        segmentDataList.forEach(segment -> {
-            final Vector3 center = segment.getCenter().toVector3();
-            final Optional<BoardSegment> optionalBoardSegment = this.segments.stream()
-                    .filter(currentSegment -> currentSegment.center().equals(center))
-                    .findFirst();
+        for (SegmentData segment : segmentDataList) {
+            final Position center = segment.getCenter();
+            final int centerCell = Cell.of(center.getQ(), center.getR());
+            final int segmentIndex = Cell.isValid(centerCell) ? this.segmentIndexCells[centerCell] : -1;
 
-            if(optionalBoardSegment.isPresent()) {
-                int i = 0;
+            if(segmentIndex != -1)
+                this.updatePassengers(segment, centerCell, changedPassengerCells);
+            else
+                this.addSegment(segment);
+        }
 
-                // update the passenger counts of the existing fields
-                for (Map.Entry<Vector3, Field> fieldEntry : optionalBoardSegment.get().fields().entrySet()) {
-                    if(fieldEntry.getValue() instanceof Passenger passenger) {
-                        final Field newField = segment.getColumns().get(i / 5).getFields().get(i % 5);
+        final BoardChanges changes = new BoardChanges(
+                nextSegmentIndex,
+                this.segments.size() - nextSegmentIndex,
+                changedPassengerCells
+        );
 
-                        if(!(newField instanceof Passenger newPassenger))
-                            continue;
+        if(changes.hasNewSegments()) {
+            this.updateNextFieldPositions();
+            this.updateCounterCurrent(nextSegmentIndex);
+        }
 
-                        passenger.setPassenger(newPassenger.getPassenger());
-                    }
+        if(!changes.isEmpty())
+            this.updateActionFieldIndices();
 
-                    i++;
-                }
-            } else {
-                final LinkedHashMap<Vector3, Field> fields = new LinkedHashMap<>();
-                final Direction direction = segment.getDirection();
-                final List<Vector3> positions = this.getFieldPositions(center, direction);
+        this.lastChanges = changes;
+        this.invalidateCaches();
 
-                for (int i = 0; i < positions.size(); i++)
-                    fields.put(positions.get(i), segment.getColumns().get(i / 5).getFields().get(i % 5));
+        return changes;
+    }
 
-                this.fields.putAll(fields);
-                this.segments.add(new BoardSegment(fields, center, direction));
-            }
-        });
+    /**
+     * Copies the passenger counts of a known segment.
+     *
+     * @param segment the segment data
+     * @param centerCell the packed center of the segment
+     * @param changedPassengerCells the set to add the packed positions of changed passenger fields to
+     */
+    private void updatePassengers(SegmentData segment, int centerCell, CellSet changedPassengerCells) {
+        final Direction direction = segment.getDirection();
+        final List<FieldArray> columns = segment.getColumns();
+
+        for (int i = 0; i < 20; i++) {
+            if(!(columns.get(i / 5).getFields().get(i % 5) instanceof Passenger newPassenger))
+                continue;
+
+            final int cell = getFieldCell(centerCell, direction, i);
+
+            if(FieldCode.isPassenger(this.grid[cell]) && this.updatePassengerCount(cell, newPassenger.getPassenger()))
+                changedPassengerCells.add(cell);
+        }
+    }
+
+    /**
+     * Adds a newly revealed segment.
+     *
+     * @param segment the segment data
+     * @throws IllegalArgumentException if a field of the segment is outside of the board grid
+     */
+    private void addSegment(SegmentData segment) {
+        final LinkedHashMap<Vector3, Field> fields = new LinkedHashMap<>();
+        final Vector3 center = segment.getCenter().toVector3();
+        final Direction direction = segment.getDirection();
+        final List<Vector3> positions = this.getFieldPositions(center, direction);
+
+        for (int i = 0; i < positions.size(); i++) {
+            final Vector3 position = positions.get(i);
+            final byte code = FieldCode.encode(segment.getColumns().get(i / 5).getFields().get(i % 5));
+            final int cell = Cell.of(position);
+
+            if(cell == Cell.NONE)
+                throw new IllegalArgumentException("Field is outside of the board grid: " + position);
+
+            this.grid[cell] = code;
+            this.segmentIndexCells[cell] = (byte) this.segments.size();
+            this.segmentColumnCells[cell] = (byte) (i / 5);
+
+            if(FieldCode.isPassenger(code)) {
+                this.passengerFieldCells.add(cell);
+                this.passengerViews.add((Passenger) FieldCode.decode(code));
+                this.passengerHash ^= Zobrist.passengerField(cell, FieldCode.getPassengers(code));
+            } else if(FieldCode.isGoal(code))
+                this.goalCells.add(cell);
+
+            fields.put(position, this.getFieldAt(cell));
+        }
 
-        this.updateNextFieldPositions();
-        this.updateCounterCurrent(nextSegmentIndex);
+        this.fields.putAll(fields);
+        this.segments.add(new BoardSegment(fields, center, direction));
+    }
+
+    /**
+     * Packed variant of {@link #getFieldPositions(Vector3, Direction)} for a single field.
+     *
+     * @param centerCell the packed center of the segment
+     * @param direction the direction of the segment
+     * @param index the index of the field in the segment (column * 5 + row)
+     * @return the packed position of the field
+     */
+    private static int getFieldCell(int centerCell, Direction direction, int index) {
+        final int column = index / 5 - 1, row = index % 5 - 2;
+        final int rowOffset = row < 0
+                ? Cell.offset(direction.rotate(-2)) * -row
+                : Cell.offset(direction.rotate(2)) * row;
+
+        return centerCell + Cell.offset(direction) * column + rowOffset;
     }
 
     /**
@@ -268,143 +833,417 @@ public class Board {
      * @return whether the ship can pick up a passenger
      */
     public boolean canPickUpPassenger(@NonNull Vector3 position) {
-        for (Direction direction : Direction.values()) {
-            final Vector3 currentPosition = position.copy().add(direction.toVector3());
-            final Field currentField = this.getFieldAt(currentPosition);
+        return this.canPickUpPassenger(Cell.of(position));
+    }
 
-            if(!(currentField instanceof Passenger passenger))
-                continue;
+    /**
+     * @param cell the packed position of the ship
+     * @return whether the ship can pick up a passenger
+     */
+    public boolean canPickUpPassenger(int cell) {
+        return this.getPickUpPassengerCell(cell) != Cell.NONE;
+    }
 
-            final Vector3 collectPosition = currentPosition.copy().add(passenger.getDirection().toVector3());
+    /**
+     * @param cell the packed position of the ship
+     * @return the packed position of the passenger field the ship can pick up a passenger from
+     *         or {@link Cell#NONE} if there is none
+     */
+    public int getPickUpPassengerCell(int cell) {
+        if(cell == Cell.NONE)
+            return Cell.NONE;
 
-            if(passenger.getPassenger() > 0 && position.equals(collectPosition))
-                return true;
+        for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final int currentCell = Cell.add(cell, Direction.of(ordinal));
+            final byte code = this.getFieldCode(currentCell);
+
+            if(!FieldCode.isPassenger(code))
+                continue;
+
+            if(FieldCode.getPassengers(code) > 0 && Cell.add(currentCell, FieldCode.getDirection(code)) == cell)
+                return currentCell;
         }
 
-        return false;
+        return Cell.NONE;
+    }
+
+    /**
+     * @param ship the current ship
+     * @param position the start position of the ship
+     * @param shipDirection the direction of the ship
+     * @param enemyShip the enemy ship
+     * @param enemyPosition the position of the enemy ship
+     * @param speed the current speed of the ship
+     * @param freeTurns the amount of free turns
+     * @param coal the maximum amount of coal to use
+     * @param forceMultiplePushes whether to force multiple pushes if possible
+     * @return all possible moves for the current ship, one per end state, see {@link MoveBuffer}
+     */
+    public Set<Move> getMoves(@NonNull Ship ship,
+                              @NonNull Vector3 position,
+                              @NonNull Direction shipDirection,
+                              @NonNull Ship enemyShip,
+                              Vector3 enemyPosition,
+                              int speed,
+                              int freeTurns,
+                              int coal,
+                              boolean forceMultiplePushes) {
+        final MoveBuffer buffer = new MoveBuffer();
+        final int count = this.getMoves(
+                buffer,
+                ship,
+                Cell.of(position),
+                shipDirection,
+                enemyShip,
+                Cell.of(enemyPosition),
+                speed,
+                freeTurns,
+                coal,
+                forceMultiplePushes
+        );
+
+        final Set<Move> moves = new HashSet<>(count * 2);
+
+        for (int i = 0; i < count; i++)
+            moves.add(buffer.toMove(i));
+
+        return moves;
     }
 
     /**
+     * Streams all possible moves in the heuristic order of {@link MoveBuffer#iterator()}.
+     * Moves are only materialized when they are consumed, so short-circuiting operations like
+     * {@link Stream#takeWhile} or {@link Stream#limit} skip the remaining moves.
+     *
      * @param ship the current ship
      * @param position the start position of the ship
      * @param shipDirection the direction of the ship
      * @param enemyShip the enemy ship
-     * @param enemyPosition the position of the enemy ship
+     * @param enemyPosition the position of the enemy ship
+     * @param speed the current speed of the ship
+     * @param freeTurns the amount of free turns
+     * @param coal the maximum amount of coal to use
+     * @param forceMultiplePushes whether to force multiple pushes if possible
+     * @return an ordered stream of all possible moves for the current ship
+     */
+    public Stream<Move> streamMoves(@NonNull Ship ship,
+                                    @NonNull Vector3 position,
+                                    @NonNull Direction shipDirection,
+                                    @NonNull Ship enemyShip,
+                                    Vector3 enemyPosition,
+                                    int speed,
+                                    int freeTurns,
+                                    int coal,
+                                    boolean forceMultiplePushes) {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        this.getMoves(buffer, ship, Cell.of(position), shipDirection, enemyShip, Cell.of(enemyPosition),
+                speed, freeTurns, coal, forceMultiplePushes);
+
+        return buffer.stream();
+    }
+
+    /**
+     * Generates all possible moves into the given buffer. The buffer is cleared first and no moves are
+     * materialized, so repeated calls with the same buffer do not allocate. Moves reaching the same end state
+     * are collapsed into the one with the lowest coal cost.
+     *
+     * @param buffer the buffer to write the moves into
+     * @param ship the current ship
+     * @param cell the packed start position of the ship
+     * @param shipDirection the direction of the ship
+     * @param enemyShip the enemy ship
+     * @param enemyCell the packed position of the enemy ship or {@link Cell#NONE}
      * @param speed the current speed of the ship
      * @param freeTurns the amount of free turns
      * @param coal the maximum amount of coal to use
      * @param forceMultiplePushes whether to force multiple pushes if possible
-     * @return all possible moves for the current ship
+     * @return the amount of generated moves
      */
-    public Set<Move> getMoves(@NonNull Ship ship,
-                              @NonNull Vector3 position,
-                              @NonNull Direction shipDirection,
-                              @NonNull Ship enemyShip,
-                              Vector3 enemyPosition,
-                              int speed,
-                              int freeTurns,
-                              int coal,
-                              boolean forceMultiplePushes) {
-        return this.getMoves(
+    public int getMoves(@NonNull MoveBuffer buffer,
+                        @NonNull Ship ship,
+                        int cell,
+                        @NonNull Direction shipDirection,
+                        @NonNull Ship enemyShip,
+                        int enemyCell,
+                        int speed,
+                        int freeTurns,
+                        int coal,
+                        boolean forceMultiplePushes) {
+        buffer.clear();
+
+        this.generateMoves(
+                buffer,
                 ship,
-                position,
+                cell,
                 shipDirection,
                 enemyShip,
-                enemyPosition,
-                null,
+                enemyCell,
+                ALL_DIRECTIONS,
                 speed,
                 freeTurns,
                 0,
                 coal,
-                forceMultiplePushes
+                forceMultiplePushes,
+                0L,
+                0,
+                0,
+                0,
+                0
         );
+
+        return buffer.size();
+    }
+
+    /**
+     * Same as {@link #getMoves(MoveBuffer, Ship, int, Direction, Ship, int, int, int, int, boolean)}, but generates
+     * the moves of each root direction in its own task of the given pool. Every task writes into its own partition
+     * of the buffer, the partitions are merged in the same order as the sequential generation visits them,
+     * so the result is identical.
+     *
+     * @param pool the pool to generate the moves in, may be null to generate sequentially
+     * @return the amount of generated moves
+     */
+    public int getMoves(@NonNull MoveBuffer buffer,
+                        @NonNull Ship ship,
+                        int cell,
+                        @NonNull Direction shipDirection,
+                        @NonNull Ship enemyShip,
+                        int enemyCell,
+                        int speed,
+                        int freeTurns,
+                        int coal,
+                        boolean forceMultiplePushes,
+                        ForkJoinPool pool) {
+        if(pool == null || pool.getParallelism() < 2)
+            return this.getMoves(buffer, ship, cell, shipDirection, enemyShip, enemyCell, speed, freeTurns, coal, forceMultiplePushes);
+
+        buffer.clear();
+
+        final List<RecursiveAction> tasks = new ArrayList<>(Direction.COUNT);
+
+        for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final Direction direction = Direction.of(ordinal);
+
+            if(this.isBlocked(Cell.add(cell, direction)))
+                continue;
+
+            final MoveBuffer partition = buffer.getPartition(ordinal);
+            final int allowedDirections = 1 << ordinal;
+
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    partition.clear();
+
+                    generateMoves(
+                            partition,
+                            ship,
+                            cell,
+                            shipDirection,
+                            enemyShip,
+                            enemyCell,
+                            allowedDirections,
+                            speed,
+                            freeTurns,
+                            0,
+                            coal,
+                            forceMultiplePushes,
+                            0L,
+                            0,
+                            0,
+                            0,
+                            0
+                    );
+                }
+            });
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        int mergedDirections = 0;
+
+        for (int rotation = -MAX_ROTATIONS; rotation <= MAX_ROTATIONS; rotation++) {
+            final Direction direction = shipDirection.rotate(rotation);
+            final int directionBit = 1 << direction.ordinal();
+
+            if((mergedDirections & directionBit) != 0 || this.isBlocked(Cell.add(cell, direction)))
+                continue;
+
+            mergedDirections |= directionBit;
+            buffer.addAll(buffer.getPartition(direction.ordinal()));
+        }
+
+        return buffer.size();
     }
 
     /**
+     * Appends all moves starting with the given prefix to the buffer.
+     *
+     * @param buffer the buffer to write the moves into
      * @param ship the current ship
-     * @param position the start position of the ship
+     * @param cell the packed start position of the ship
      * @param shipDirection the direction of the ship
      * @param enemyShip the enemy ship
-     * @param enemyPosition the position of the enemy ship
-     * @param excludedDirection the direction to exclude, may be null
+     * @param enemyCell the packed position of the enemy ship or {@link Cell#NONE}
+     * @param allowedDirections the bitmask of direction ordinals to continue into
      * @param speed the initial speed the ship
      * @param freeTurns the amount of free turns
-     * @param usedPoints the available movement points
+     * @param usedPoints the movement points used by the prefix
      * @param coal the maximum amount of coal to use
      * @param forceMultiplePushes whether to force multiple pushes if possible
-     * @return all possible moves for the current ship
-     */
-    private Set<Move> getMoves(@NonNull Ship ship,
-                               @NonNull Vector3 position,
-                               @NonNull Direction shipDirection,
-                               @NonNull Ship enemyShip,
-                               Vector3 enemyPosition,
-                               Direction excludedDirection,
+     * @param prefixActions the packed actions of the prefix
+     * @param prefixActionCount the amount of actions of the prefix
+     * @param prefixDistance the distance travelled by the prefix
+     * @param prefixTurnCost the sum of all turns of the prefix
+     * @param prefixPushes the amount of pushes of the prefix
+     */
+    private void generateMoves(MoveBuffer buffer,
+                               Ship ship,
+                               int cell,
+                               Direction shipDirection,
+                               Ship enemyShip,
+                               int enemyCell,
+                               int allowedDirections,
                                int speed,
                                int freeTurns,
                                int usedPoints,
                                int coal,
-                               boolean forceMultiplePushes) {
-        final Set<Move> moves = new HashSet<>();
+                               boolean forceMultiplePushes,
+                               long prefixActions,
+                               int prefixActionCount,
+                               int prefixDistance,
+                               int prefixTurnCost,
+                               int prefixPushes) {
+        final int turns = Math.min(freeTurns + coal, MAX_ROTATIONS);
+        int visitedDirections = 0;
+
+        for (int rotation = -turns; rotation <= turns; rotation++) {
+            final Direction turnDirection = shipDirection.rotate(rotation);
+            final int directionBit = 1 << turnDirection.ordinal();
+
+            if((visitedDirections & directionBit) != 0)
+                continue;
+
+            final int turnCost = shipDirection.costTo(turnDirection);
+
+            if(turnCost > turns || this.isBlocked(Cell.add(cell, turnDirection)))
+                continue;
+
+            visitedDirections |= directionBit;
 
-        this.getDirectionCosts(shipDirection, position, freeTurns + coal).forEach((turnDirection, turnCost) -> {
-            if(Objects.equals(turnDirection, excludedDirection))
-                return;
+            if((allowedDirections & directionBit) == 0)
+                continue;
 
             final int remainingCoal = coal - Math.max(0, turnCost - freeTurns);
             final int minMovementPoints = Math.max(1, speed - remainingCoal - 1);
             final int maxMovementPoints = Math.min(6, speed + remainingCoal + 1);
 
+            long turnActions = prefixActions;
+            int turnActionCount = prefixActionCount;
+
+            if (shipDirection != turnDirection)
+                turnActions = MoveBuffer.append(turnActions, turnActionCount++, MoveBuffer.turn(turnDirection));
+
             for (int currentPoints = 1; currentPoints <= maxMovementPoints - usedPoints; currentPoints++) {
-                final Move move = new Move(position, enemyPosition, turnDirection);
-
-                if (shipDirection != turnDirection)
-                    move.turn(turnDirection);
-
-                final AdvanceInfo advanceInfo = this.getAdvanceLimit(ship, position, turnDirection, enemyPosition, minMovementPoints, usedPoints, currentPoints);
-                final AdvanceInfo.Result result = this.appendForwardMove(
-                        advanceInfo.getEndPosition(position, turnDirection),
-                        turnDirection,
-                        enemyShip,
-                        move,
-                        advanceInfo,
-                        currentPoints,
-                        forceMultiplePushes
-                );
-
-                final Vector3 endPosition = move.getEndPosition();
-                final int cost = move.getTotalCost();
-
-                if (move.getDistance() == 0)
+                final int advance = this.getAdvance(ship, cell, turnDirection, enemyCell, minMovementPoints, usedPoints, currentPoints);
+                final int advanceCost = advanceCost(advance), advanceDistance = advanceDistance(advance);
+                final int advanceEndCell = Cell.add(cell, turnDirection, advanceDistance);
+
+                long actions = turnActions;
+                int actionCount = turnActionCount;
+                int endCell = advanceEndCell, enemyEndCell = enemyCell;
+                int distance = 0, cost = 0, passengers = 0, pushes = 0;
+                boolean goal = false, pushed = false;
+
+                switch (ADVANCE_RESULTS[advanceResult(advance)]) {
+                    case SHIP -> {
+                        final boolean wasCounterCurrent = this.isCounterCurrent(advanceEndCell);
+                        final boolean isCounterCurrent = this.isCounterCurrent(Cell.add(advanceEndCell, turnDirection));
+                        final boolean payCounterCurrentCost = (!wasCounterCurrent || advanceDistance == 0) && isCounterCurrent;
+                        final int moveCost = payCounterCurrentCost ? 2 : 1;
+
+                        if(moveCost + 1 /* push cost */ + advanceCost <= currentPoints) {
+                            final Direction pushDirection;
+
+                            if(forceMultiplePushes && !this.isBlocked(Cell.add(advanceEndCell, turnDirection, 2)))
+                                pushDirection = turnDirection;
+                            else
+                                pushDirection = this.getBestPushDirection(turnDirection, enemyShip, enemyCell, forceMultiplePushes);
+
+                            if (pushDirection != null) {
+                                actions = MoveBuffer.append(actions, actionCount++, MoveBuffer.forward(advanceDistance + 1));
+                                actions = MoveBuffer.append(actions, actionCount++, MoveBuffer.push(pushDirection));
+                                endCell = Cell.add(advanceEndCell, turnDirection);
+                                enemyEndCell = Cell.add(enemyCell, pushDirection);
+                                distance = advanceDistance + 1;
+                                cost = advanceCost + moveCost + 1;
+                                pushes = 1;
+                                pushed = true;
+                            }
+                        }
+                    }
+                    case PASSENGER -> passengers = 1;
+                    case GOAL -> goal = true;
+                }
+
+                if (!pushed && advanceDistance > 0) {
+                    actions = MoveBuffer.append(actions, actionCount++, MoveBuffer.forward(advanceDistance));
+                    distance = advanceDistance;
+                    cost = advanceCost;
+                }
+
+                if (distance == 0)
                     continue;
 
                 if (cost >= minMovementPoints - usedPoints) {
-                    move.segment(this.getSegmentIndex(endPosition), this.getSegmentColumn(endPosition));
-
-                    moves.add(move);
+                    buffer.add(
+                            actions,
+                            actionCount,
+                            endCell,
+                            enemyEndCell,
+                            turnDirection,
+                            prefixDistance + distance,
+                            usedPoints + cost,
+                            prefixTurnCost + turnCost,
+                            passengers,
+                            prefixPushes + pushes,
+                            this.getSegmentIndex(endCell),
+                            this.getSegmentColumn(endCell),
+                            goal
+                    );
                 }
 
                 final int totalPoints = usedPoints + cost;
 
-                if (cost <= currentPoints && totalPoints < maxMovementPoints && !move.isGoal() && move.getPassengers() == 0) {
-                    getMoves(
+                if (cost <= currentPoints && totalPoints < maxMovementPoints && !goal && passengers == 0) {
+                    this.generateMoves(
+                            buffer,
                             ship,
-                            endPosition,
+                            endCell,
                             turnDirection,
                             enemyShip,
-                            move.getEnemyEndPosition(),
-                            result.equals(AdvanceInfo.Result.SHIP) ? null : turnDirection,
+                            enemyEndCell,
+                            pushed ? ALL_DIRECTIONS : ALL_DIRECTIONS & ~directionBit,
                             speed,
                             Math.max(0, freeTurns - turnCost),
                             totalPoints,
                             remainingCoal - Math.max(0, totalPoints - speed),
-                            forceMultiplePushes
-                    ).forEach(currentMove -> moves.add(move.copy().append(currentMove)));
+                            forceMultiplePushes,
+                            actions,
+                            actionCount,
+                            prefixDistance + distance,
+                            prefixTurnCost + turnCost,
+                            prefixPushes + pushes
+                    );
                 }
             }
-        });
-
-        return moves;
+        }
     }
 
     /**
@@ -429,15 +1268,16 @@ public class Board {
         AdvanceInfo.Result result = advanceInfo.getResult();
 
         if (result == AdvanceInfo.Result.SHIP) {
-            final boolean wasCounterCurrent = this.isCounterCurrent(endPosition);
-            final boolean isCounterCurrent = this.isCounterCurrent(endPosition.copy().add(direction.toVector3()));
+            final int endCell = Cell.of(endPosition);
+            final boolean wasCounterCurrent = this.isCounterCurrent(endCell);
+            final boolean isCounterCurrent = this.isCounterCurrent(Cell.add(endCell, direction));
             final boolean payCounterCurrentCost = (!wasCounterCurrent || advanceInfo.getDistance() == 0) && isCounterCurrent;
             final int moveCost = payCounterCurrentCost ? 2 : 1;
 
             if(moveCost + 1 /* push cost */ + advanceInfo.getCost() <= availableMovementPoints) {
                 final Direction pushDirection;
 
-                if(forceMultiplePushes && !this.isBlocked(endPosition.copy().add(direction.toVector3().multiply(2))))
+                if(forceMultiplePushes && !this.isBlocked(Cell.add(endCell, direction, 2)))
                     pushDirection = direction;
                 else
                     pushDirection = this.getBestPushDirection(direction, enemyShip, move.getEnemyEndPosition(), forceMultiplePushes);
@@ -481,55 +1321,275 @@ public class Board {
                                        int minReachableSpeed,
                                        int usedMovementPoints,
                                        int movementPoints) {
+        return this.getAdvanceLimit(
+                playerShip,
+                Cell.of(start),
+                direction,
+                Cell.of(enemyPosition),
+                minReachableSpeed,
+                usedMovementPoints,
+                movementPoints
+        );
+    }
+
+    /**
+     * Get the maximum free forward moves.
+     *
+     * @param playerShip the player ship
+     * @param start the packed start position of the ship
+     * @param direction the direction of the ship
+     * @param enemyCell the packed position of the enemy ship or {@link Cell#NONE}
+     * @param minReachableSpeed the minimum reachable speed
+     * @param usedMovementPoints the used movement points so far
+     * @param movementPoints the maximum amount of movement points to use
+     * @return the information about the maximum free forward moves
+     */
+    public AdvanceInfo getAdvanceLimit(@NonNull Ship playerShip,
+                                       int start,
+                                       @NonNull Direction direction,
+                                       int enemyCell,
+                                       int minReachableSpeed,
+                                       int usedMovementPoints,
+                                       int movementPoints) {
+        final int advance = this.getAdvance(playerShip, start, direction, enemyCell, minReachableSpeed, usedMovementPoints, movementPoints);
         final AdvanceInfo advanceInfo = new AdvanceInfo();
-        final Vector3 directionVector = direction.toVector3(), position = start.copy();
+        advanceInfo.setResult(ADVANCE_RESULTS[advanceResult(advance)]);
+        advanceInfo.setCost(advanceCost(advance));
+        advanceInfo.setDistance(advanceDistance(advance));
+
+        return advanceInfo;
+    }
+
+    /**
+     * Looks up the advance in the advance cache, which is invalidated by every memento. Passengers can only be
+     * picked up on the first two fields, so whether they can be is part of the key instead.
+     *
+     * @return the packed result ordinal, cost and distance, see {@link #advance(Ship, int, Direction, int, int, int, int)}
+     */
+    private int getAdvance(Ship playerShip,
+                           int start,
+                           Direction direction,
+                           int enemyCell,
+                           int minReachableSpeed,
+                           int usedMovementPoints,
+                           int movementPoints) {
+        if(!Cell.isValid(start) || (enemyCell != Cell.NONE && !Cell.isValid(enemyCell))
+                || (minReachableSpeed | usedMovementPoints | movementPoints) >>> 3 != 0)
+            return this.advance(playerShip, start, direction, enemyCell, minReachableSpeed, usedMovementPoints, movementPoints);
+
+        final int offset = Cell.offset(direction);
+        final long key = start
+                | (long) direction.ordinal() << 13
+                | (long) (enemyCell + 1) << 16
+                | (long) minReachableSpeed << 30
+                | (long) usedMovementPoints << 33
+                | (long) movementPoints << 36
+                | (playerShip.hasEnoughPassengers() ? 1L : 0L) << 39
+                | (usedMovementPoints <= 1 && this.collectCells.contains(start + offset) ? 1L : 0L) << 40
+                | (usedMovementPoints == 0 && this.collectCells.contains(start + offset * 2) ? 1L : 0L) << 41;
+        final int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - ADVANCE_CACHE_BITS));
+        final int generation = this.cacheGeneration;
+        final long entry = this.advanceCache.getOpaque(index);
+
+        if((entry & ADVANCE_KEY_MASK) == key && (int) (entry >>> 51) == generation) {
+            this.advanceCacheHits.increment();
+
+            final int value = (int) (entry >>> 42) & 0x1FF;
+
+            return (value & 7) | ((value >>> 3) & 7) << 8 | (value >>> 6) << 16;
+        }
+
+        this.advanceCacheMisses.increment();
+
+        final int advance = this.advance(playerShip, start, direction, enemyCell, minReachableSpeed, usedMovementPoints, movementPoints);
+        final long value = advanceResult(advance) | advanceCost(advance) << 3 | advanceDistance(advance) << 6;
+
+        this.advanceCache.setOpaque(index, key | value << 42 | (long) generation << 51);
+
+        return advance;
+    }
+
+    /**
+     * Drops all cached advance results and push directions by starting a new generation.
+     */
+    private void invalidateCaches() {
+        final int generation = this.cacheGeneration + 1;
 
+        if(generation == CACHE_GENERATION_LIMIT) {
+            clear(this.advanceCache);
+            clear(this.pushCache);
+            this.cacheGeneration = 1;
+        } else
+            this.cacheGeneration = generation;
+
+        this.invalidatePassengerCaches();
+    }
+
+    /**
+     * Drops the cached push directions that depend on the passengers by starting a new passenger generation.
+     */
+    private void invalidatePassengerCaches() {
+        final int generation = this.passengerCacheGeneration + 1;
+
+        if(generation == CACHE_GENERATION_LIMIT) {
+            clear(this.pushCache);
+            this.passengerCacheGeneration = 1;
+        } else
+            this.passengerCacheGeneration = generation;
+    }
+
+    private static void clear(AtomicLongArray cache) {
+        for (int i = 0; i < cache.length(); i++)
+            cache.setOpaque(i, 0);
+    }
+
+    /**
+     * @return the amount of advance cache hits since the last {@link #resetAdvanceCacheStats()}
+     */
+    public long getAdvanceCacheHits() {
+        return this.advanceCacheHits.sum();
+    }
+
+    /**
+     * @return the amount of advance cache misses since the last {@link #resetAdvanceCacheStats()}
+     */
+    public long getAdvanceCacheMisses() {
+        return this.advanceCacheMisses.sum();
+    }
+
+    /**
+     * @return the share of advance lookups answered by the cache, 0 if there were none
+     */
+    public double getAdvanceCacheHitRate() {
+        final long hits = this.getAdvanceCacheHits(), total = hits + this.getAdvanceCacheMisses();
+
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    public void resetAdvanceCacheStats() {
+        this.advanceCacheHits.reset();
+        this.advanceCacheMisses.reset();
+    }
+
+    /**
+     * Primitive version of {@link #getAdvanceLimit(Ship, int, Direction, int, int, int, int)}.
+     *
+     * @return the packed result ordinal, cost and distance, see {@link #advanceResult(int)},
+     *         {@link #advanceCost(int)} and {@link #advanceDistance(int)}
+     */
+    private int advance(Ship playerShip,
+                        int start,
+                        Direction direction,
+                        int enemyCell,
+                        int minReachableSpeed,
+                        int usedMovementPoints,
+                        int movementPoints) {
+        final int offset = Cell.offset(direction);
+        final int freeDistance = this.getFreeDistance(start, direction);
+        final int counterCurrentOffset = this.getCounterCurrentOffset(start, direction);
+        final int enemyOffset = getRayOffset(start, offset, enemyCell, freeDistance);
+
+        AdvanceInfo.Result result = AdvanceInfo.Result.NORMAL;
+        int cell = start, cost = 0, distance = 0;
         boolean onCounterCurrent = false;
 
-        while(advanceInfo.getCost() < movementPoints) {
-            position.add(directionVector);
+        while(cost < movementPoints) {
+            // passengers and goals can't be reached anymore, so skip to the next obstacle, enemy or counter current
+            if(freeDistance != -1 && usedMovementPoints + cost >= 2) {
+                int nextEvent = freeDistance + 1;
+
+                if(enemyOffset > distance)
+                    nextEvent = Math.min(nextEvent, enemyOffset);
+
+                if(!onCounterCurrent && counterCurrentOffset > distance)
+                    nextEvent = Math.min(nextEvent, counterCurrentOffset);
+
+                final int steps = Math.min(movementPoints - cost, nextEvent - distance - 1);
+
+                if(steps > 0) {
+                    cell += offset * steps;
+                    distance += steps;
+                    cost += steps;
+                    continue;
+                }
+            }
+
+            cell += offset;
 
-            final Field field = this.getFieldAt(position);
+            final byte code = this.getFieldCode(cell);
 
-            if(field == null || field.isObstacle()) {
-                advanceInfo.setResult(AdvanceInfo.Result.BLOCKED);
+            if(FieldCode.isObstacle(code)) {
+                result = AdvanceInfo.Result.BLOCKED;
                 break;
             }
 
-            if(Objects.equals(position, enemyPosition)) {
-                advanceInfo.setResult(AdvanceInfo.Result.SHIP);
+            if(cell == enemyCell) {
+                result = AdvanceInfo.Result.SHIP;
                 break;
             }
 
-            final boolean isCounterCurrent = this.isCounterCurrent(position);
+            final boolean isCounterCurrent = this.isCounterCurrent(cell);
 
             if(!onCounterCurrent && isCounterCurrent) {
-                if(advanceInfo.getCost() + 2 > movementPoints) {
-                    advanceInfo.setResult(AdvanceInfo.Result.COUNTER_CURRENT);
+                if(cost + 2 > movementPoints) {
+                    result = AdvanceInfo.Result.COUNTER_CURRENT;
                     break;
                 }
 
-                advanceInfo.incrementCost();
+                cost++;
                 onCounterCurrent = true;
             }
 
-            advanceInfo.incrementDistance();
-            advanceInfo.incrementCost();
+            distance++;
+            cost++;
 
-            final int totalMovementPoints = usedMovementPoints + advanceInfo.getCost();
+            final int totalMovementPoints = usedMovementPoints + cost;
 
             if(totalMovementPoints <= (isCounterCurrent ? 2 : 1) && minReachableSpeed <= totalMovementPoints) {
-                if (field instanceof Goal && playerShip.hasEnoughPassengers()) {
-                    advanceInfo.setResult(AdvanceInfo.Result.GOAL);
+                if (FieldCode.isGoal(code) && playerShip.hasEnoughPassengers()) {
+                    result = AdvanceInfo.Result.GOAL;
                     break;
-                } else if (this.canPickUpPassenger(position)) {
-                    advanceInfo.setResult(AdvanceInfo.Result.PASSENGER);
+                } else if (this.canPickUpPassenger(cell)) {
+                    result = AdvanceInfo.Result.PASSENGER;
                     break;
                 }
             }
         }
 
-        return advanceInfo;
+        return result.ordinal() | (cost << 8) | (distance << 16);
+    }
+
+    /**
+     * @param start the packed start of the ray
+     * @param offset the cell offset of the ray direction
+     * @param cell the packed cell to find
+     * @param maxOffset the maximum offset to consider
+     * @return the amount of steps from the start to the cell, 0 if the cell is not on the ray within the maximum offset
+     */
+    private static int getRayOffset(int start, int offset, int cell, int maxOffset) {
+        if(cell == Cell.NONE || start == Cell.NONE)
+            return 0;
+
+        final int delta = cell - start;
+
+        if(delta % offset != 0)
+            return 0;
+
+        final int steps = delta / offset;
+
+        return steps >= 1 && steps <= maxOffset ? steps : 0;
+    }
+
+    private static int advanceResult(int advance) {
+        return advance & 0xFF;
+    }
+
+    private static int advanceCost(int advance) {
+        return (advance >>> 8) & 0xFF;
+    }
+
+    private static int advanceDistance(int advance) {
+        return advance >>> 16;
     }
 
     /**
@@ -541,11 +1601,22 @@ public class Board {
      * @return the required turn count for all possible directions
      */
     public Map<Direction, Integer> getDirectionCosts(@NonNull Direction direction, @NonNull Vector3 position, int maxTurns) {
+        return this.getDirectionCosts(direction, Cell.of(position), maxTurns);
+    }
+
+    /**
+     * Returns the cost for all possible directions.
+     *
+     * @param direction the current direction of the ship
+     * @param cell the packed position of the ship
+     * @param maxTurns the maximum amount of turns to consider
+     * @return the required turn count for all possible directions
+     */
+    public Map<Direction, Integer> getDirectionCosts(@NonNull Direction direction, int cell, int maxTurns) {
         final Map<Direction, Integer> costs = new HashMap<>();
-        final double maxRotations = Math.ceil((Direction.values().length - 1) / 2d);
-        final double turns = Math.min(maxTurns, maxRotations);
+        final int turns = Math.min(maxTurns, MAX_ROTATIONS);
 
-        for(int i = (int) Math.floor(-turns); i <= turns; i++) {
+        for(int i = -turns; i <= turns; i++) {
             final Direction currentDirection = direction.rotate(i);
 
             if(costs.containsKey(currentDirection))
@@ -553,7 +1624,7 @@ public class Board {
 
             final int turnCost = direction.costTo(currentDirection);
 
-            if(turnCost > turns || this.isBlocked(position.copy().add(currentDirection.toVector3())))
+            if(turnCost > turns || this.isBlocked(Cell.add(cell, currentDirection)))
                 continue;
 
             costs.put(currentDirection, turnCost);
@@ -570,11 +1641,28 @@ public class Board {
      * @return the minimum required turn count for the given direction
      */
     public int getMinTurns(@NonNull Direction direction, @NonNull Vector3 position) {
-        return this.getDirectionCosts(direction, position, 3)
-                .values()
-                .stream()
-                .min(Integer::compare)
-                .orElse(0);
+        return this.getMinTurns(direction, Cell.of(position));
+    }
+
+    /**
+     * Get the minimum required turn count for a direction.
+     *
+     * @param direction the target direction
+     * @param cell the packed position of the ship
+     * @return the minimum required turn count for the given direction
+     */
+    public int getMinTurns(@NonNull Direction direction, int cell) {
+        int minTurns = -1;
+
+        for(int rotation = -MAX_ROTATIONS; rotation <= MAX_ROTATIONS; rotation++) {
+            final Direction currentDirection = direction.rotate(rotation);
+            final int turnCost = direction.costTo(currentDirection);
+
+            if((minTurns == -1 || turnCost < minTurns) && !this.isBlocked(Cell.add(cell, currentDirection)))
+                minTurns = turnCost;
+        }
+
+        return Math.max(0, minTurns);
     }
 
     /**
@@ -609,27 +1697,48 @@ public class Board {
      * @return whether the ship can reach the destination with the required speed in the next round
      */
     public boolean canReachRequiredSpeed(@NonNull Ship ship, @NonNull Vector3 position, Vector3 enemyPosition, @NonNull Vector3 destination) {
-        if(Objects.equals(enemyPosition, destination))
+        return this.canReachRequiredSpeed(ship, Cell.of(position), Cell.of(enemyPosition), Cell.of(destination));
+    }
+
+    /**
+     * @param ship the ship
+     * @param cell the ship's packed position
+     * @param enemyCell the enemy's packed position
+     * @param destination the packed position to reach
+     * @return whether the ship can reach the destination with the required speed in the next round
+     */
+    public boolean canReachRequiredSpeed(@NonNull Ship ship, int cell, int enemyCell, int destination) {
+        final Direction directionToDestination = Cell.directionTo(cell, destination);
+
+        // ignore invalid directions
+        if(directionToDestination == null)
             return false;
 
-        try {
-            final Direction directionToDestination = Direction.fromVector3(destination.copy().subtract(position));
-            final int turnCost = ship.getDirection().costTo(directionToDestination);
-            final int coal = Math.min(2, ship.getCoal());
+        return this.canReachRequiredSpeed(ship, directionToDestination, enemyCell, destination);
+    }
 
-            if (turnCost <= 1 + coal) {
-                final int remainingCoal = coal - Math.max(0, turnCost - 1);
-                final int minReachableSpeed = ship.getSpeed() - 1 - remainingCoal;
-                final int requiredSpeed = this.isCounterCurrent(destination) ? 2 : 1;
+    /**
+     * @param ship the ship
+     * @param directionToDestination the direction from the ship's position to the neighbouring destination
+     * @param enemyCell the enemy's packed position
+     * @param destination the packed position to reach
+     * @return whether the ship can reach the destination with the required speed in the next round
+     */
+    private boolean canReachRequiredSpeed(Ship ship, Direction directionToDestination, int enemyCell, int destination) {
+        if(enemyCell == destination)
+            return false;
 
-                if (minReachableSpeed <= requiredSpeed)
-                    return true;
-            }
-        } catch (IllegalArgumentException ignored) {
-            // ignore invalid directions
-        }
+        final int turnCost = ship.getDirection().costTo(directionToDestination);
+        final int coal = Math.min(2, ship.getCoal());
 
-        return false;
+        if (turnCost > 1 + coal)
+            return false;
+
+        final int remainingCoal = coal - Math.max(0, turnCost - 1);
+        final int minReachableSpeed = ship.getSpeed() - 1 - remainingCoal;
+        final int requiredSpeed = this.isCounterCurrent(destination) ? 2 : 1;
+
+        return minReachableSpeed <= requiredSpeed;
     }
 
     /**
@@ -641,10 +1750,37 @@ public class Board {
      */
     public boolean canReachActionFieldInNextRound(@NonNull Ship ship, @NonNull Vector3 position, Vector3 enemyPosition,
                                                   @NonNull Set<Vector3> actionPositions) {
-        for (Direction direction : Direction.values()) {
-            final Vector3 neighbourPosition = position.copy().add(direction.toVector3());
+        final int cell = Cell.of(position), enemyCell = Cell.of(enemyPosition);
+
+        for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final Direction direction = Direction.of(ordinal);
+            final int neighbourCell = Cell.add(cell, direction);
+
+            if(Cell.isValid(neighbourCell)
+                    && actionPositions.contains(Cell.toVector3(neighbourCell))
+                    && this.canReachRequiredSpeed(ship, direction, enemyCell, neighbourCell))
+                return true;
+        }
 
-            if(actionPositions.contains(neighbourPosition) && canReachRequiredSpeed(ship, position, enemyPosition, neighbourPosition))
+        return false;
+    }
+
+    /**
+     * @param ship the ship
+     * @param cell the ship's packed position
+     * @param enemyCell the enemy's packed position
+     * @param actionCells the packed positions of the action fields
+     * @return whether the ship can reach an action field in the next round
+     */
+    public boolean canReachActionFieldInNextRound(@NonNull Ship ship, int cell, int enemyCell, @NonNull CellSet actionCells) {
+        if(cell == Cell.NONE || actionCells.isEmpty())
+            return false;
+
+        for (int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final Direction direction = Direction.of(ordinal);
+            final int neighbourCell = Cell.add(cell, direction);
+
+            if(actionCells.contains(neighbourCell) && this.canReachRequiredSpeed(ship, direction, enemyCell, neighbourCell))
                 return true;
         }
 
@@ -658,14 +1794,17 @@ public class Board {
      * @return whether the ship can collect a passenger in the next round
      */
     public boolean canCollectPassengerInNextRound(@NonNull Ship ship, @NonNull Vector3 position, Vector3 enemyPosition) {
-        final Set<Vector3> collectPositions = this.getPassengerFields()
-                .entrySet()
-                .stream()
-                .map((entry) -> entry.getKey().copy().add(((Passenger) entry.getValue()).getDirection().toVector3()))
-                .filter(Predicate.not(this::isBlocked))
-                .collect(Collectors.toSet());
+        return this.canCollectPassengerInNextRound(ship, Cell.of(position), Cell.of(enemyPosition));
+    }
 
-        return canReachActionFieldInNextRound(ship, position, enemyPosition, collectPositions);
+    /**
+     * @param ship the ship
+     * @param cell the ship's packed position
+     * @param enemyCell the enemy's packed position
+     * @return whether the ship can collect a passenger in the next round
+     */
+    public boolean canCollectPassengerInNextRound(@NonNull Ship ship, int cell, int enemyCell) {
+        return this.canReachActionFieldInNextRound(ship, cell, enemyCell, this.collectDirections);
     }
 
     /**
@@ -675,10 +1814,40 @@ public class Board {
      * @return whether the ship finish the game in the next round
      */
     public boolean canFinishInNextRound(@NonNull Ship ship, @NonNull Vector3 position, Vector3 enemyPosition) {
+        return this.canFinishInNextRound(ship, Cell.of(position), Cell.of(enemyPosition));
+    }
+
+    /**
+     * @param ship the ship
+     * @param cell the ship's packed position
+     * @param enemyCell the enemy's packed position
+     * @return whether the ship finish the game in the next round
+     */
+    public boolean canFinishInNextRound(@NonNull Ship ship, int cell, int enemyCell) {
         if(!ship.hasEnoughPassengers())
             return false;
 
-        return canReachActionFieldInNextRound(ship, position, enemyPosition, this.getGoalFields().keySet());
+        return this.canReachActionFieldInNextRound(ship, cell, enemyCell, this.goalDirections);
+    }
+
+    /**
+     * Precomputed variant of {@link #canReachActionFieldInNextRound(Ship, int, int, CellSet)}.
+     *
+     * @param directions the directions of the neighbouring action fields per cell
+     * @return whether the ship can reach an action field in the next round
+     */
+    private boolean canReachActionFieldInNextRound(Ship ship, int cell, int enemyCell, byte[] directions) {
+        if(!Cell.isValid(cell))
+            return false;
+
+        for (int mask = directions[cell]; mask != 0; mask &= mask - 1) {
+            final Direction direction = Direction.of(Integer.numberOfTrailingZeros(mask));
+
+            if(this.canReachRequiredSpeed(ship, direction, enemyCell, Cell.add(cell, direction)))
+                return true;
+        }
+
+        return false;
     }
 
     /**
@@ -694,44 +1863,101 @@ public class Board {
                                           @NonNull Ship enemyShip,
                                           @NonNull Vector3 enemyPosition,
                                           boolean allowGoalAndPassengerPickUp) {
+        return this.getBestPushDirection(from, enemyShip, Cell.of(enemyPosition), allowGoalAndPassengerPickUp);
+    }
+
+    /**
+     * Get the best push direction for the enemy ship. Results are cached until the next memento,
+     * or until the next passenger change if goal and passenger pick ups are not allowed.
+     *
+     * @param from the direction the ship is coming from
+     * @param enemyShip the enemy ship
+     * @param enemyCell the packed position of the enemy ship
+     * @param allowGoalAndPassengerPickUp whether to allow goal and passenger pick up
+     * @return the direction with the highest score, or null if no direction is available
+     */
+    public Direction getBestPushDirection(@NonNull Direction from,
+                                          @NonNull Ship enemyShip,
+                                          int enemyCell,
+                                          boolean allowGoalAndPassengerPickUp) {
         if(enemyShip.isStuck())
             return null;
 
+        final int speed = enemyShip.getSpeed();
+
+        if(!Cell.isValid(enemyCell) || speed >>> 3 != 0)
+            return this.computeBestPushDirection(from, enemyShip, enemyCell, allowGoalAndPassengerPickUp);
+
+        // the result only depends on these properties of the enemy ship, the board state is covered by the generation,
+        // the passengers are only checked if pick ups are not allowed
+        final long key = enemyCell
+                | (long) from.ordinal() << 13
+                | (long) enemyShip.getDirection().ordinal() << 16
+                | (long) speed << 19
+                | (long) Math.max(0, Math.min(2, enemyShip.getCoal())) << 22
+                | (enemyShip.hasEnoughPassengers() ? 1L : 0L) << 24
+                | (allowGoalAndPassengerPickUp ? 1L : 0L) << 25;
+        final int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - PUSH_CACHE_BITS));
+        final int generation = allowGoalAndPassengerPickUp ? this.cacheGeneration : this.passengerCacheGeneration;
+        final long entry = this.pushCache.getOpaque(index);
+
+        if((entry & PUSH_KEY_MASK) == key && (int) (entry >>> 29) == generation) {
+            final int value = (int) (entry >>> 26) & 7;
+
+            return value == 0 ? null : Direction.of(value - 1);
+        }
+
+        final Direction bestDirection = this.computeBestPushDirection(from, enemyShip, enemyCell, allowGoalAndPassengerPickUp);
+        final long value = bestDirection == null ? 0 : bestDirection.ordinal() + 1;
+
+        this.pushCache.setOpaque(index, key | value << 26 | (long) generation << 29);
+
+        return bestDirection;
+    }
+
+    /**
+     * Uncached version of {@link #getBestPushDirection(Direction, Ship, int, boolean)} for a ship which is not stuck.
+     *
+     * @return the direction with the highest score, or null if no direction is available
+     */
+    private Direction computeBestPushDirection(Direction from, Ship enemyShip, int enemyCell, boolean allowGoalAndPassengerPickUp) {
         Direction bestDirection = null;
         double maxScore = Integer.MIN_VALUE;
 
-        for(Direction currentDirection : Direction.values()) {
-            if(currentDirection.toVector3().equals(from.toVector3().invert()))
+        for(int ordinal = 0; ordinal < Direction.COUNT; ordinal++) {
+            final Direction currentDirection = Direction.of(ordinal);
+
+            if(currentDirection == from.rotate(3))
                 continue;
 
-            final Vector3 pushPosition = enemyPosition.copy().add(currentDirection.toVector3());
-            final Field pushField = this.getFieldAt(pushPosition);
+            final int pushCell = Cell.add(enemyCell, currentDirection);
+            final byte pushCode = this.getFieldCode(pushCell);
 
-            if(pushField == null || pushField.isObstacle())
+            if(FieldCode.isObstacle(pushCode))
                 continue;
 
-            final int counterCurrentBonus = this.isCounterCurrent(pushPosition) ? 1 : 0;
+            final int counterCurrentBonus = this.isCounterCurrent(pushCell) ? 1 : 0;
             final boolean hasEnoughPassengers = enemyShip.hasEnoughPassengers();
 
             double actionFieldCost = 0;
 
             if(!allowGoalAndPassengerPickUp) {
                 if(enemyShip.getSpeed() <= 1 + counterCurrentBonus) {
-                    if ((pushField instanceof Goal && hasEnoughPassengers) || this.canPickUpPassenger(pushPosition))
+                    if ((FieldCode.isGoal(pushCode) && hasEnoughPassengers) || this.canPickUpPassenger(pushCell))
                         continue;
                 }
 
-                final Vector3 playerPosition = enemyPosition.copy().add(from.toVector3());
+                final int playerCell = Cell.add(enemyCell, from);
 
-                if(this.canFinishInNextRound(enemyShip, pushPosition, playerPosition))
+                if(this.canFinishInNextRound(enemyShip, pushCell, playerCell))
                     actionFieldCost = 10;
 
-                if(this.canCollectPassengerInNextRound(enemyShip, pushPosition, playerPosition))
+                if(this.canCollectPassengerInNextRound(enemyShip, pushCell, playerCell))
                     actionFieldCost = 5;
             }
 
-            final double positionBonus = this.getSegmentDistance(pushPosition, enemyPosition) * (hasEnoughPassengers ? 4 : 2);
-            final double score = this.getMinTurns(enemyShip.getDirection(), pushPosition) + counterCurrentBonus + positionBonus - actionFieldCost;
+            final double positionBonus = this.getSegmentProgressDistance(pushCell, enemyCell) / 4d * (hasEnoughPassengers ? 4 : 2);
+            final double score = this.getMinTurns(enemyShip.getDirection(), pushCell) + counterCurrentBonus + positionBonus - actionFieldCost;
 
             if(score > maxScore) {
                 maxScore = score;
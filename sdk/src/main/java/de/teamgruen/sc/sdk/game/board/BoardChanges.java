@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game.board;
+
+import de.teamgruen.sc.sdk.game.CellSet;
+
+/**
+ * Change set of a single {@link Board#updateSegments(java.util.List)} call.
+ *
+ * @param firstNewSegment the index of the first newly revealed segment
+ * @param newSegments the amount of newly revealed segments
+ * @param changedPassengerCells the packed positions of already known passenger fields whose passenger count changed
+ */
+public record BoardChanges(int firstNewSegment, int newSegments, CellSet changedPassengerCells) {
+
+    public boolean hasNewSegments() {
+        return this.newSegments > 0;
+    }
+
+    public boolean hasPassengerChanges() {
+        return !this.changedPassengerCells.isEmpty();
+    }
+
+    /**
+     * @return whether the update did not change the board
+     */
+    public boolean isEmpty() {
+        return !this.hasNewSegments() && !this.hasPassengerChanges();
+    }
+
+    /**
+     * @param segmentIndex the index of the segment
+     * @return whether the segment was revealed by the update
+     */
+    public boolean isNewSegment(int segmentIndex) {
+        return segmentIndex >= this.firstNewSegment && segmentIndex < this.firstNewSegment + this.newSegments;
+    }
+
+}
@@ -25,6 +25,13 @@ public interface GameHandler {
     default void onGameStart(@NonNull GameState gameState) {
         throw new UnsupportedOperationException("Not implemented");
     }
+    /**
+     * Called before a memento is applied to the game state, background work on the game state has to stop here.
+     *
+     * @param gameState the game state that is about to be updated
+     */
+    default void beforeBoardUpdate(@NonNull GameState gameState) {
+    }
     default void onBoardUpdate(@NonNull GameState gameState) {
         throw new UnsupportedOperationException("Not implemented");
     }
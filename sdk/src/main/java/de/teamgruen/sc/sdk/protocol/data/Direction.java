@@ -7,8 +7,10 @@ package de.teamgruen.sc.sdk.protocol.data;
 
 import de.teamgruen.sc.sdk.game.Vector3;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.NonNull;
 
+@Getter
 @AllArgsConstructor
 public enum Direction {
 
@@ -19,8 +21,48 @@ public enum Direction {
     UP_LEFT(0, -1, 1),
     UP_RIGHT(1, -1, 0);
 
+    private static final Direction[] VALUES = values();
+    /**
+     * The amount of directions, allows iterating via {@link #of(int)} without cloning {@link #values()}
+     */
+    public static final int COUNT = VALUES.length;
+    /**
+     * ROTATIONS[d][n] is direction d rotated clockwise n times
+     */
+    private static final Direction[][] ROTATIONS = new Direction[COUNT][COUNT];
+    /**
+     * DELTAS[from][to] is the smallest signed rotation delta, COSTS[from][to] its absolute value
+     */
+    private static final int[][] DELTAS = new int[COUNT][COUNT], COSTS = new int[COUNT][COUNT];
+    /**
+     * FROM_DELTA[(dq + 1) * 3 + dr + 1] is the direction with the given axial delta or null
+     */
+    private static final Direction[] FROM_DELTA = new Direction[9];
+
+    static {
+        for (Direction direction : VALUES) {
+            final int from = direction.ordinal();
+
+            for (int i = 0; i < COUNT; i++) {
+                final int delta = Math.floorMod(i - from, COUNT);
+
+                ROTATIONS[from][i] = VALUES[(from + i) % COUNT];
+                DELTAS[from][i] = (delta > COUNT / 2) ? delta - COUNT : delta;
+                COSTS[from][i] = Math.abs(DELTAS[from][i]);
+            }
+
+            FROM_DELTA[(direction.q + 1) * 3 + direction.r + 1] = direction;
+        }
+    }
+
     private final int q, r, s;
 
+    /**
+     * Vectors are mutable, so this allocates a new vector on every call.
+     * Use {@link Vector3#add(Direction)} or the coordinate getters in hot paths.
+     *
+     * @return a new vector for the direction
+     */
     public Vector3 toVector3() {
         return new Vector3(this.q, this.r, this.s);
     }
@@ -30,7 +72,7 @@ public enum Direction {
      * @return the rotated direction
      */
     public Direction rotate(int rotations) {
-        return values()[Math.floorMod(this.ordinal() + rotations, values().length)];
+        return ROTATIONS[this.ordinal()][Math.floorMod(rotations, COUNT)];
     }
 
     /**
@@ -47,9 +89,7 @@ public enum Direction {
      * @return the smallest delta between the current direction and the target direction
      */
     public int delta(@NonNull Direction direction) {
-        final int delta = Math.floorMod(direction.ordinal() - this.ordinal(), values().length);
-
-        return (delta > values().length / 2) ? delta - values().length : delta;
+        return DELTAS[this.ordinal()][direction.ordinal()];
     }
 
     /**
@@ -57,7 +97,7 @@ public enum Direction {
      * @return the cost to rotate to the target direction
      */
     public int costTo(@NonNull Direction direction) {
-        return Math.abs(this.delta(direction));
+        return COSTS[this.ordinal()][direction.ordinal()];
     }
 
     public int toFieldColumn() {
@@ -69,13 +109,33 @@ public enum Direction {
         };
     }
 
+    /**
+     * @param ordinal the ordinal of the direction
+     * @return the direction with the given ordinal
+     */
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @param deltaQ the q delta
+     * @param deltaR the r delta
+     * @return the direction with the given axial delta or null if the delta is not a direction
+     */
+    public static Direction fromDelta(int deltaQ, int deltaR) {
+        if(deltaQ < -1 || deltaQ > 1 || deltaR < -1 || deltaR > 1)
+            return null;
+
+        return FROM_DELTA[(deltaQ + 1) * 3 + deltaR + 1];
+    }
+
     public static Direction fromVector3(@NonNull Vector3 vector) {
-        for (Direction direction : values()) {
-            if (direction.toVector3().equals(vector))
-                return direction;
-        }
+        final Direction direction = fromDelta(vector.getQ(), vector.getR());
+
+        if(direction == null || direction.s != vector.getS())
+            throw new IllegalArgumentException("Vector is not a direction: " + vector);
 
-        throw new IllegalArgumentException("Vector is not a direction: " + vector);
+        return direction;
     }
 
 }
@@ -8,6 +8,13 @@ package de.teamgruen.sc.sdk.protocol.data;
 public enum Team {
 
     ONE,
-    TWO
+    TWO;
+
+    /**
+     * @return the other team
+     */
+    public Team getOpponent() {
+        return this == ONE ? TWO : ONE;
+    }
 
 }
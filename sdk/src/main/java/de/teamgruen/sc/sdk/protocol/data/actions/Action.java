@@ -6,10 +6,26 @@
 package de.teamgruen.sc.sdk.protocol.data.actions;
 
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import lombok.NonNull;
 
 public interface Action {
 
-    void perform(@NonNull GameState gameState);
+    /**
+     * Performs the action for the player's ship.
+     *
+     * @param gameState the game state to perform the action on
+     */
+    default void perform(@NonNull GameState gameState) {
+        this.perform(gameState, gameState.getPlayerTeam());
+    }
+
+    /**
+     * Performs the action for the ship of the given team, so moves of the enemy can be replayed as well.
+     *
+     * @param gameState the game state to perform the action on
+     * @param team the team of the acting ship
+     */
+    void perform(@NonNull GameState gameState, @NonNull Team team);
 
 }
@@ -7,7 +7,9 @@ package de.teamgruen.sc.sdk.protocol.data.actions;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Zobrist;
 import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import lombok.Data;
 import lombok.NonNull;
 
@@ -18,9 +20,12 @@ public class ChangeVelocity implements Action {
     private int deltaVelocity;
 
     @Override
-    public void perform(@NonNull GameState gameState) {
-        final Ship ship = gameState.getPlayerShip();
-        ship.setSpeed(ship.getSpeed() + this.deltaVelocity);
+    public void perform(@NonNull GameState gameState, @NonNull Team team) {
+        final Ship ship = gameState.getShip(team);
+        final int speed = ship.getSpeed() + this.deltaVelocity;
+
+        gameState.toggleHash(Zobrist.speed(ship.getTeam(), ship.getSpeed()) ^ Zobrist.speed(ship.getTeam(), speed));
+        ship.setSpeed(speed);
     }
 
 }
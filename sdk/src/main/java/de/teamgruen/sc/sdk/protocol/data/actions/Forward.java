@@ -6,8 +6,11 @@
 package de.teamgruen.sc.sdk.protocol.data.actions;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Zobrist;
 import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import lombok.Data;
 import lombok.NonNull;
 
@@ -18,9 +21,13 @@ public class Forward implements Action {
     private int distance;
 
     @Override
-    public void perform(@NonNull GameState gameState) {
-        final Ship ship = gameState.getPlayerShip();
-        ship.getPosition().add(ship.getDirection().toVector3().multiply(this.distance));
+    public void perform(@NonNull GameState gameState, @NonNull Team team) {
+        final Ship ship = gameState.getShip(team);
+        final int startCell = Cell.of(ship.getPosition());
+
+        ship.getPosition().add(ship.getDirection(), this.distance);
+        gameState.toggleHash(Zobrist.position(ship.getTeam(), startCell)
+                ^ Zobrist.position(ship.getTeam(), Cell.of(ship.getPosition())));
     }
 
 }
@@ -6,9 +6,12 @@
 package de.teamgruen.sc.sdk.protocol.data.actions;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import de.teamgruen.sc.sdk.game.Cell;
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Zobrist;
 import de.teamgruen.sc.sdk.game.board.Ship;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import lombok.Data;
 import lombok.NonNull;
 
@@ -19,10 +22,18 @@ public class Push implements Action {
     private Direction direction;
 
     @Override
-    public void perform(@NonNull GameState gameState) {
-        final Ship enemyShip = gameState.getEnemyShip();
-        enemyShip.getPosition().add(this.direction.toVector3());
+    public void perform(@NonNull GameState gameState, @NonNull Team team) {
+        final Ship enemyShip = gameState.getShip(team.getOpponent());
+        final Team enemyTeam = enemyShip.getTeam();
+        final int startCell = Cell.of(enemyShip.getPosition());
+        final int startFreeTurns = enemyShip.getFreeTurns();
+
+        enemyShip.getPosition().add(this.direction);
         enemyShip.setFreeTurns(2);
+        gameState.toggleHash(Zobrist.position(enemyTeam, startCell)
+                ^ Zobrist.position(enemyTeam, Cell.of(enemyShip.getPosition()))
+                ^ Zobrist.freeTurns(enemyTeam, startFreeTurns)
+                ^ Zobrist.freeTurns(enemyTeam, 2));
     }
 
 }
@@ -7,7 +7,10 @@ package de.teamgruen.sc.sdk.protocol.data.actions;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Zobrist;
+import de.teamgruen.sc.sdk.game.board.Ship;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import lombok.Data;
 import lombok.NonNull;
 
@@ -18,8 +21,12 @@ public class Turn implements Action {
     private Direction direction;
 
     @Override
-    public void perform(@NonNull GameState gameState) {
-        gameState.getPlayerShip().setDirection(this.direction);
+    public void perform(@NonNull GameState gameState, @NonNull Team team) {
+        final Ship ship = gameState.getShip(team);
+
+        gameState.toggleHash(Zobrist.direction(ship.getTeam(), ship.getDirection())
+                ^ Zobrist.direction(ship.getTeam(), this.direction));
+        ship.setDirection(this.direction);
     }
 
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.protocol.data.board.fields;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import lombok.NonNull;
+
+/**
+ * Packed single byte representation of a field.
+ * Bits 0-2 hold the type, bits 3-5 the passenger direction and bits 6-7 the passenger count.
+ * The code {@link #NONE} marks a position without a field.
+ */
+public class FieldCode {
+
+    public static final byte NONE = 0;
+    public static final int WATER = 1, ISLAND = 2, PASSENGER = 3, GOAL = 4;
+    public static final int MAX_PASSENGERS = 3;
+
+    private static final int TYPE_MASK = 0b111;
+    private static final int DIRECTION_SHIFT = 3, DIRECTION_MASK = 0b111 << DIRECTION_SHIFT;
+    private static final int PASSENGERS_SHIFT = 6;
+
+    /**
+     * The obstacle flag of every type, indexed by type
+     */
+    private static final boolean[] OBSTACLES = { true, false, true, true, false };
+
+    public static byte water() {
+        return WATER;
+    }
+
+    public static byte island() {
+        return ISLAND;
+    }
+
+    public static byte goal() {
+        return GOAL;
+    }
+
+    /**
+     * @param direction the direction of the passenger field's pier
+     * @param passengers the amount of passengers
+     * @return the packed passenger field
+     * @throws IllegalArgumentException if the passenger count cannot be encoded
+     */
+    public static byte passenger(@NonNull Direction direction, int passengers) {
+        if(passengers < 0 || passengers > MAX_PASSENGERS)
+            throw new IllegalArgumentException("Passenger count cannot be encoded: " + passengers);
+
+        return (byte) (PASSENGER | direction.ordinal() << DIRECTION_SHIFT | passengers << PASSENGERS_SHIFT);
+    }
+
+    /**
+     * @param field the field to encode, may be null
+     * @return the packed field or {@link #NONE} if the field is null
+     * @throws IllegalArgumentException if the field type is unknown
+     */
+    public static byte encode(Field field) {
+        if(field == null)
+            return NONE;
+        else if(field instanceof Water)
+            return water();
+        else if(field instanceof Island)
+            return island();
+        else if(field instanceof Goal)
+            return goal();
+        else if(field instanceof Passenger passenger)
+            return passenger(passenger.getDirection(), passenger.getPassenger());
+
+        throw new IllegalArgumentException("Unknown field type: " + field.getClass().getSimpleName());
+    }
+
+    /**
+     * Returns a view of the packed field. Water, island and goal views are shared flyweights,
+     * passenger views are new objects that are not backed by the code.
+     *
+     * @param code the packed field
+     * @return the field or null if the code is {@link #NONE}
+     */
+    public static Field decode(byte code) {
+        return switch (getType(code)) {
+            case WATER -> FieldFactory.water();
+            case ISLAND -> FieldFactory.island();
+            case GOAL -> FieldFactory.goal();
+            case PASSENGER -> new Passenger(getDirection(code), getPassengers(code));
+            default -> null;
+        };
+    }
+
+    public static int getType(byte code) {
+        return code & TYPE_MASK;
+    }
+
+    /**
+     * @param code the packed field
+     * @return whether the field is not passable, positions without a field are not passable either
+     */
+    public static boolean isObstacle(byte code) {
+        return OBSTACLES[code & TYPE_MASK];
+    }
+
+    public static boolean isPassenger(byte code) {
+        return (code & TYPE_MASK) == PASSENGER;
+    }
+
+    public static boolean isGoal(byte code) {
+        return (code & TYPE_MASK) == GOAL;
+    }
+
+    /**
+     * @param code the packed passenger field
+     * @return the direction of the passenger field's pier
+     */
+    public static Direction getDirection(byte code) {
+        return Direction.of((code & DIRECTION_MASK) >>> DIRECTION_SHIFT);
+    }
+
+    /**
+     * @param code the packed passenger field
+     * @return the amount of passengers
+     */
+    public static int getPassengers(byte code) {
+        return (code & 0xFF) >>> PASSENGERS_SHIFT;
+    }
+
+    /**
+     * @param code the packed passenger field
+     * @param passengers the new amount of passengers
+     * @return the packed passenger field with the new passenger count
+     * @throws IllegalArgumentException if the passenger count cannot be encoded
+     */
+    public static byte withPassengers(byte code, int passengers) {
+        if(passengers < 0 || passengers > MAX_PASSENGERS)
+            throw new IllegalArgumentException("Passenger count cannot be encoded: " + passengers);
+
+        return (byte) ((code & ~(0b11 << PASSENGERS_SHIFT)) | passengers << PASSENGERS_SHIFT);
+    }
+
+}
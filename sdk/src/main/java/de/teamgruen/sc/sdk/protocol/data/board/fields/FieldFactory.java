@@ -10,12 +10,19 @@ import lombok.NonNull;
 
 public class FieldFactory {
 
+    /**
+     * Water, island and goal fields have no state, so a single shared instance of each is enough
+     */
+    private static final Water WATER = new Water();
+    private static final Island ISLAND = new Island();
+    private static final Goal GOAL = new Goal();
+
     public static Water water() {
-        return new Water();
+        return WATER;
     }
 
     public static Island island() {
-        return new Island();
+        return ISLAND;
     }
 
     public static Passenger passenger(@NonNull Direction direction, int passengers) {
@@ -23,7 +30,7 @@ public class FieldFactory {
     }
 
     public static Goal goal() {
-        return new Goal();
+        return GOAL;
     }
 
 }
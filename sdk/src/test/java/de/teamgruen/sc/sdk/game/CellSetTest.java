@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CellSetTest {
+
+    @Test
+    public void testAdd() {
+        final CellSet cells = new CellSet();
+
+        assertTrue(cells.add(Cell.of(1, 2)));
+        assertTrue(cells.contains(Cell.of(1, 2)));
+        assertFalse(cells.contains(Cell.of(2, 1)));
+        assertEquals(1, cells.size());
+    }
+
+    @Test
+    public void testAdd_Duplicate() {
+        final CellSet cells = new CellSet();
+
+        cells.add(Cell.of(1, 2));
+
+        assertFalse(cells.add(Cell.of(1, 2)));
+        assertEquals(1, cells.size());
+    }
+
+    @Test
+    public void testAdd_Invalid() {
+        final CellSet cells = new CellSet();
+
+        assertFalse(cells.add(Cell.NONE));
+        assertFalse(cells.contains(Cell.NONE));
+        assertTrue(cells.isEmpty());
+    }
+
+    @Test
+    public void testGet_InsertionOrder() {
+        final CellSet cells = new CellSet();
+
+        for (int i = 20; i >= 0; i--)
+            cells.add(Cell.of(i, -i));
+
+        assertEquals(21, cells.size());
+
+        for (int i = 0; i <= 20; i++)
+            assertEquals(Cell.of(20 - i, i - 20), cells.get(i));
+    }
+
+    @Test
+    public void testGet_OutOfBounds() {
+        final CellSet cells = new CellSet();
+
+        cells.add(Cell.of(0, 0));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> cells.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cells.get(-1));
+    }
+
+    @Test
+    public void testClear() {
+        final CellSet cells = new CellSet();
+
+        cells.add(Cell.of(0, 0));
+        cells.add(Cell.of(1, 0));
+        cells.clear();
+
+        assertTrue(cells.isEmpty());
+        assertFalse(cells.contains(Cell.of(0, 0)));
+        assertFalse(cells.contains(Cell.of(1, 0)));
+        assertTrue(cells.add(Cell.of(1, 0)));
+    }
+
+}
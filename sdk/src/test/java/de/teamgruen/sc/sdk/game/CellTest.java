@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CellTest {
+
+    @Test
+    public void testOf() {
+        final int cell = Cell.of(new Vector3(1, -2, 1));
+
+        assertEquals(1, Cell.q(cell));
+        assertEquals(-2, Cell.r(cell));
+        assertEquals(1, Cell.s(cell));
+    }
+
+    @Test
+    public void testOf_Null() {
+        assertEquals(Cell.NONE, Cell.of(null));
+    }
+
+    @Test
+    public void testOf_OutsideGrid() {
+        assertEquals(Cell.NONE, Cell.of(Cell.RADIUS + 1, 0));
+    }
+
+    @Test
+    public void testToVector3() {
+        assertEquals(new Vector3(-3, 5, -2), Cell.toVector3(Cell.of(-3, 5)));
+    }
+
+    @Test
+    public void testToVector3_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Cell.toVector3(Cell.NONE));
+    }
+
+    @Test
+    public void testAdd() {
+        assertEquals(Cell.of(1, -1), Cell.add(Cell.of(0, 0), Direction.UP_RIGHT));
+    }
+
+    @Test
+    public void testAdd_Times() {
+        assertEquals(Cell.of(-3, 3), Cell.add(Cell.of(0, 0), Direction.DOWN_LEFT, 3));
+    }
+
+    @Test
+    public void testAdd_None() {
+        assertEquals(Cell.NONE, Cell.add(Cell.NONE, Direction.RIGHT));
+    }
+
+    @Test
+    public void testDirectionTo() {
+        assertEquals(Direction.LEFT, Cell.directionTo(Cell.of(0, 0), Cell.of(-1, 0)));
+    }
+
+    @Test
+    public void testDirectionTo_NoNeighbour() {
+        assertNull(Cell.directionTo(Cell.of(0, 0), Cell.of(-2, 0)));
+    }
+
+    @Test
+    public void testDistance() {
+        assertEquals(3, Cell.distance(Cell.of(0, 0), Cell.of(2, -3)));
+    }
+
+}
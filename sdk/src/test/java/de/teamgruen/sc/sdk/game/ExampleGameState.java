@@ -28,6 +28,7 @@ public class ExampleGameState extends GameState {
         this.getEnemyShip().setPosition(new Vector3(-2, 1, 1));
         this.gamePhase = GamePhase.RUNNING;
         this.turn = 0;
+        this.rehash();
     }
 
     public static List<SegmentData> getSampleSegments() {
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        this.gameState = new ExampleGameState();
+    }
+
+    @Test
+    public void testOf() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+
+        assertEquals(Team.ONE, snapshot.getCurrentTeam());
+        assertEquals(ShipSnapshot.of(this.gameState.getShip(Team.ONE)), snapshot.getShip(Team.ONE));
+        assertEquals(ShipSnapshot.of(this.gameState.getShip(Team.TWO)), snapshot.getShip(Team.TWO));
+        assertEquals(this.gameState.getHash(), snapshot.getHash());
+    }
+
+    @Test
+    public void testOf_NoCurrentTeam() {
+        this.gameState.setCurrentTeam(null);
+
+        assertThrows(IllegalStateException.class, () -> GameSnapshot.of(this.gameState));
+    }
+
+    @Test
+    public void testShipSnapshot_ToShip() {
+        final Ship ship = this.gameState.getEnemyShip();
+        final Ship copy = ShipSnapshot.of(ship).toShip();
+
+        assertEquals(ship, copy);
+        assertNotSame(ship.getPosition(), copy.getPosition());
+        assertEquals(Zobrist.ship(ship), ShipSnapshot.of(ship).hash());
+    }
+
+    @Test
+    public void testGetMoves_Enemy() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+        final MoveBuffer expectedMoves = new MoveBuffer(), actualMoves = new MoveBuffer();
+        final long hash = this.gameState.getHash();
+
+        final int moveCount = this.gameState.getMoves(expectedMoves, Team.TWO);
+
+        assertTrue(moveCount > 0);
+        assertEquals(moveCount, snapshot.getMoves(actualMoves, Team.TWO));
+
+        for (int i = 0; i < moveCount; i++)
+            assertEquals(expectedMoves.toMove(i), actualMoves.toMove(i));
+
+        assertEquals(hash, this.gameState.getHash());
+    }
+
+    @Test
+    public void testGetMoves_Coal() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+        final MoveBuffer buffer = new MoveBuffer();
+        final Ship ship = this.gameState.getPlayerShip();
+
+        final int moveCount = snapshot.getMoves(buffer, Team.ONE, 0);
+
+        assertTrue(moveCount > 0);
+        assertTrue(moveCount < snapshot.getMoves(new MoveBuffer(), Team.ONE));
+
+        for (int i = 0; i < moveCount; i++)
+            assertEquals(0, buffer.getCoalCost(i, ship.getDirection(), ship.getSpeed(), ship.getFreeTurns()));
+    }
+
+    @Test
+    public void testApply_MatchesGameState() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+        final MoveBuffer buffer = new MoveBuffer();
+        final int moveCount = snapshot.getMoves(buffer);
+
+        for (int i = 0; i < moveCount; i++) {
+            final GameSnapshot next = snapshot.apply(buffer, i);
+
+            this.gameState.apply(Team.ONE, buffer.toMove(i));
+
+            assertEquals(Team.TWO, next.getCurrentTeam());
+            assertEquals(snapshot.getTurn() + 1, next.getTurn());
+            assertEquals(ShipSnapshot.of(this.gameState.getShip(Team.ONE)), next.getShip(Team.ONE));
+            assertEquals(ShipSnapshot.of(this.gameState.getShip(Team.TWO)), next.getShip(Team.TWO));
+
+            this.gameState.undo();
+        }
+    }
+
+    @Test
+    public void testApply_Immutable() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+        final ShipSnapshot shipOne = snapshot.getShipOne(), shipTwo = snapshot.getShipTwo();
+        final long hash = snapshot.getHash();
+        final MoveBuffer buffer = new MoveBuffer();
+
+        snapshot.getMoves(buffer);
+
+        final GameSnapshot next = snapshot.apply(buffer, 0);
+
+        assertNotEquals(hash, next.getHash());
+        assertSame(shipOne, snapshot.getShipOne());
+        assertSame(shipTwo, snapshot.getShipTwo());
+        assertEquals(hash, snapshot.getHash());
+        assertEquals(this.gameState.getHash(), hash);
+    }
+
+    @Test
+    public void testConstructor_ShipOrder() {
+        final GameSnapshot snapshot = this.gameState.snapshot();
+
+        assertThrows(IllegalArgumentException.class, () -> new GameSnapshot(
+                snapshot.getBoard(), Team.ONE, 0, snapshot.getShipTwo(), snapshot.getShipOne()
+        ));
+    }
+
+}
@@ -10,6 +10,7 @@ import de.teamgruen.sc.sdk.protocol.data.Direction;
 import de.teamgruen.sc.sdk.protocol.data.Position;
 import de.teamgruen.sc.sdk.protocol.data.ShipData;
 import de.teamgruen.sc.sdk.protocol.data.Team;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -44,6 +45,142 @@ public class GameStateTest {
         assertEquals(0, stateShip.getPoints());
     }
 
+    @Test
+    public void testUpdateShips_Hash() {
+        final long initialHash = this.gameState.getHash();
+
+        this.gameState.updateShips(List.of(new ShipData(Team.TWO, Direction.LEFT, 4, 3, 2, 1, 0, false, new Position(1, 2, 3))));
+
+        final long hash = this.gameState.getHash();
+        this.gameState.rehash();
+
+        assertNotEquals(initialHash, hash);
+        assertEquals(this.gameState.getHash(), hash);
+    }
+
+    @Test
+    public void testUpdateShips_HashUnchanged() {
+        final long initialHash = this.gameState.getHash();
+        final Ship ship = this.gameState.getEnemyShip();
+        final Vector3 position = ship.getPosition();
+
+        this.gameState.updateShips(List.of(new ShipData(
+                Team.TWO, ship.getDirection(), ship.getSpeed(), ship.getCoal(), ship.getPassengers(), ship.getFreeTurns(),
+                ship.getPoints() + 1, false, new Position(position.getQ(), position.getR(), position.getS())
+        )));
+
+        assertEquals(initialHash, this.gameState.getHash());
+    }
+
+    @Test
+    public void testGetHash_PassengerChange() {
+        final long initialHash = this.gameState.getHash();
+
+        this.gameState.getBoard().updateSegments(ExampleGameState.getSampleSegments().stream().peek(segment ->
+                segment.getColumns().forEach(column -> column.getFields().forEach(field -> {
+                    if (field instanceof Passenger passenger)
+                        passenger.setPassenger(0);
+                }))
+        ).toList());
+
+        assertNotEquals(initialHash, this.gameState.getHash());
+        assertEquals(initialHash, new ExampleGameState().getHash());
+    }
+
+    @Test
+    public void testApply() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final Move move = new Move(playerShip.getPosition(), this.gameState.getEnemyShip().getPosition(), playerShip.getDirection());
+        move.turn(Direction.DOWN_RIGHT);
+        move.forward(2, 2);
+
+        this.gameState.apply(move);
+
+        assertEquals(new Vector3(-1, 1, 0), playerShip.getPosition());
+        assertEquals(Direction.DOWN_RIGHT, playerShip.getDirection());
+        assertEquals(2, playerShip.getSpeed());
+        assertEquals(6, playerShip.getCoal());
+        assertEquals(1, this.gameState.getUndoDepth());
+    }
+
+    @Test
+    public void testApply_Undo() {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final Ship initialPlayerShip = copyShip(playerShip), initialEnemyShip = copyShip(enemyShip);
+        final long initialHash = this.gameState.getHash();
+        final Move move = new Move(playerShip.getPosition(), enemyShip.getPosition(), playerShip.getDirection());
+        move.turn(Direction.DOWN_LEFT);
+        move.forward(1, 1);
+        move.push(Direction.LEFT);
+
+        this.gameState.apply(move);
+
+        assertEquals(new Vector3(-3, 1, 2), enemyShip.getPosition());
+        assertEquals(2, enemyShip.getFreeTurns());
+        assertNotEquals(initialHash, this.gameState.getHash());
+
+        this.gameState.undo();
+
+        assertEquals(initialPlayerShip, playerShip);
+        assertEquals(initialEnemyShip, enemyShip);
+        assertEquals(initialHash, this.gameState.getHash());
+        assertEquals(0, this.gameState.getUndoDepth());
+    }
+
+    @Test
+    public void testApply_Passenger() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        playerShip.setPosition(new Vector3(2, 1, -3));
+        playerShip.setDirection(Direction.DOWN_RIGHT);
+        this.gameState.rehash();
+
+        final long initialHash = this.gameState.getHash();
+        final Passenger passenger = (Passenger) this.gameState.getBoard().getFieldAt(new Vector3(1, 2, -3));
+        final Move move = new Move(playerShip.getPosition(), this.gameState.getEnemyShip().getPosition(), playerShip.getDirection());
+        move.forward(1, 1);
+        move.passenger();
+
+        this.gameState.apply(move);
+
+        assertEquals(1, playerShip.getPassengers());
+        assertEquals(0, passenger.getPassenger());
+        assertFalse(this.gameState.getBoard().getPassengerCells().contains(Cell.of(1, 2)));
+
+        this.gameState.undo();
+
+        assertEquals(0, playerShip.getPassengers());
+        assertEquals(1, passenger.getPassenger());
+        assertTrue(this.gameState.getBoard().getPassengerCells().contains(Cell.of(1, 2)));
+        assertEquals(initialHash, this.gameState.getHash());
+    }
+
+    @Test
+    public void testApply_Nested() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final Vector3 initialPosition = playerShip.getPosition().copy();
+        final long initialHash = this.gameState.getHash();
+
+        for (int i = 0; i < 40; i++) {
+            final Move move = new Move(playerShip.getPosition(), null, playerShip.getDirection());
+            move.forward(1, 1);
+
+            this.gameState.apply(move);
+        }
+
+        assertEquals(initialPosition.copy().add(Direction.RIGHT, 40), playerShip.getPosition());
+
+        for (int i = 0; i < 40; i++)
+            this.gameState.undo();
+
+        assertEquals(initialPosition, playerShip.getPosition());
+        assertEquals(initialHash, this.gameState.getHash());
+    }
+
+    @Test
+    public void testUndo_Empty() {
+        assertThrows(IllegalStateException.class, () -> this.gameState.undo());
+    }
+
     @Test
     public void testUpdateShips_NoShipForTeam() {
         assertThrows(NoSuchElementException.class, () -> this.gameState.updateShips(List.of(new ShipData(null, Direction.LEFT, 4, 3, 2, 1, 0, false, new Position(1, 2, 3)))));
@@ -88,4 +225,18 @@ public class GameStateTest {
         assertEquals(6, this.gameState.getMaxMovementPoints(playerShip));
     }
 
-}
\ No newline at end of file
+    private static Ship copyShip(Ship ship) {
+        final Ship copy = new Ship(ship.getTeam());
+        copy.setPosition(ship.getPosition().copy());
+        copy.setDirection(ship.getDirection());
+        copy.setSpeed(ship.getSpeed());
+        copy.setCoal(ship.getCoal());
+        copy.setFreeTurns(ship.getFreeTurns());
+        copy.setPassengers(ship.getPassengers());
+        copy.setPoints(ship.getPoints());
+        copy.setStuck(ship.isStuck());
+
+        return copy;
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.actions.ActionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveBufferTest {
+
+    @Test
+    public void testAdd() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        assertTrue(buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false));
+        assertEquals(1, buffer.size());
+        assertEquals(Cell.of(1, 0), buffer.getEndCell(0));
+        assertEquals(Direction.DOWN_RIGHT, buffer.getEndDirection(0));
+        assertEquals(2, buffer.getTotalCost(0));
+    }
+
+    @Test
+    public void testAdd_Duplicate() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false);
+
+        assertFalse(buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false));
+        assertTrue(buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 1, 0, 0, 1, false));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    public void testAdd_SameEndState_KeepsCheapest() {
+        final MoveBuffer buffer = new MoveBuffer();
+        final long expensiveActions = MoveBuffer.append(turnForward(), 2, MoveBuffer.turn(Direction.DOWN_LEFT));
+        final long cheapActions = MoveBuffer.append(0L, 0, MoveBuffer.forward(2));
+
+        buffer.add(expensiveActions, 3, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 3, 0, 0, 0, 1, false);
+
+        assertTrue(buffer.add(cheapActions, 1, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 0, 0, 0, 0, 1, false));
+        assertFalse(buffer.add(expensiveActions, 3, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 3, 0, 0, 0, 1, false));
+        assertEquals(1, buffer.size());
+        assertEquals(cheapActions, buffer.getActions(0));
+        assertEquals(0, buffer.getTurnCost(0));
+    }
+
+    @Test
+    public void testAdd_SameEndState_DifferentPushes() {
+        final MoveBuffer buffer = new MoveBuffer();
+        final long expensiveActions = MoveBuffer.append(turnForward(), 2, MoveBuffer.turn(Direction.DOWN_LEFT));
+        final long cheapActions = MoveBuffer.append(0L, 0, MoveBuffer.forward(2));
+
+        buffer.add(expensiveActions, 3, Cell.of(2, 0), Cell.of(3, 0), Direction.RIGHT, 2, 2, 3, 0, 2, 0, 1, false);
+
+        // the enemy gets free turns for every push, so the cheaper move with another amount of pushes is kept as well
+        assertTrue(buffer.add(cheapActions, 1, Cell.of(2, 0), Cell.of(3, 0), Direction.RIGHT, 2, 2, 0, 0, 1, 0, 1, false));
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.getPushes(0));
+        assertEquals(1, buffer.getPushes(1));
+    }
+
+    @Test
+    public void testAdd_SameEndState_FewerActions() {
+        final MoveBuffer buffer = new MoveBuffer();
+        final long splitActions = MoveBuffer.append(MoveBuffer.append(0L, 0, MoveBuffer.forward(1)), 1, MoveBuffer.forward(1));
+        final long actions = MoveBuffer.append(0L, 0, MoveBuffer.forward(2));
+
+        buffer.add(splitActions, 2, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 0, 0, 0, 0, 1, false);
+
+        assertTrue(buffer.add(actions, 1, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 0, 0, 0, 0, 1, false));
+        assertEquals(1, buffer.size());
+        assertEquals(actions, buffer.getActions(0));
+    }
+
+    @Test
+    public void testAdd_Grow() {
+        final MoveBuffer buffer = new MoveBuffer(1);
+
+        for (int i = 0; i < 100; i++)
+            assertTrue(buffer.add(turnForward(), 2, Cell.of(i % 10, i / 10), Cell.NONE, Direction.RIGHT, 2, 2, 1, 0, 0, 0, 0, false));
+
+        for (int i = 0; i < 100; i++)
+            assertFalse(buffer.add(turnForward(), 2, Cell.of(i % 10, i / 10), Cell.NONE, Direction.RIGHT, 2, 2, 1, 0, 0, 0, 0, false));
+
+        assertEquals(100, buffer.size());
+        assertEquals(Cell.of(9, 9), buffer.getEndCell(99));
+    }
+
+    @Test
+    public void testAddAll() {
+        final MoveBuffer buffer = new MoveBuffer(), otherBuffer = new MoveBuffer();
+        final long cheapActions = MoveBuffer.append(0L, 0, MoveBuffer.forward(2));
+
+        buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false);
+        otherBuffer.add(cheapActions, 1, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 0, 0, 0, 0, 1, false);
+        otherBuffer.add(cheapActions, 1, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 2, 2, 0, 0, 0, 0, 1, false);
+
+        buffer.addAll(otherBuffer);
+
+        assertEquals(2, buffer.size());
+        assertEquals(cheapActions, buffer.getActions(0));
+        assertEquals(Cell.of(2, 0), buffer.getEndCell(1));
+    }
+
+    @Test
+    public void testGetPartition() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        assertSame(buffer.getPartition(3), buffer.getPartition(3));
+        assertNotSame(buffer.getPartition(0), buffer.getPartition(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getPartition(-1));
+    }
+
+    @Test
+    public void testIterator_Order() {
+        final MoveBuffer buffer = new MoveBuffer();
+        final long actions = MoveBuffer.append(0L, 0, MoveBuffer.forward(1));
+
+        buffer.add(actions, 1, Cell.of(1, 0), Cell.NONE, Direction.RIGHT, 1, 1, 0, 0, 0, 0, 1, false);
+        buffer.add(actions, 1, Cell.of(2, 0), Cell.NONE, Direction.RIGHT, 1, 1, 0, 0, 0, 0, 3, false);
+        buffer.add(actions, 1, Cell.of(3, 0), Cell.NONE, Direction.RIGHT, 1, 1, 0, 1, 0, 0, 0, false);
+        buffer.add(actions, 1, Cell.of(4, 0), Cell.NONE, Direction.RIGHT, 1, 1, 0, 0, 0, 0, 0, true);
+        buffer.add(actions, 1, Cell.of(5, 0), Cell.NONE, Direction.RIGHT, 1, 1, 1, 0, 0, 0, 3, false);
+        buffer.add(actions, 1, Cell.of(6, 0), Cell.NONE, Direction.RIGHT, 1, 1, 0, 0, 0, 1, 0, false);
+
+        final MoveIterator iterator = buffer.iterator();
+        final int[] expectedOrder = { 3, 2, 5, 1, 4, 0 };
+
+        assertEquals(expectedOrder.length, iterator.remaining());
+
+        for (int expectedIndex : expectedOrder)
+            assertEquals(expectedIndex, iterator.nextIndex());
+
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void testIterator_ConcurrentModification() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false);
+
+        final MoveIterator iterator = buffer.iterator();
+        buffer.clear();
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    public void testStream() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false);
+        buffer.add(turnForward(), 2, Cell.of(2, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 2, false);
+
+        assertEquals(List.of(buffer.toMove(1), buffer.toMove(0)), buffer.stream().toList());
+    }
+
+    @Test
+    public void testClear() {
+        final MoveBuffer buffer = new MoveBuffer();
+
+        buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false);
+        buffer.clear();
+
+        assertTrue(buffer.isEmpty());
+        assertTrue(buffer.add(turnForward(), 2, Cell.of(1, 0), Cell.NONE, Direction.DOWN_RIGHT, 2, 2, 1, 0, 0, 0, 1, false));
+    }
+
+    @Test
+    public void testGet_OutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> new MoveBuffer().getEndCell(0));
+    }
+
+    @Test
+    public void testAppend_TooManyActions() {
+        assertThrows(IllegalStateException.class, () -> MoveBuffer.append(0L, MoveBuffer.MAX_ACTIONS, MoveBuffer.forward(1)));
+    }
+
+    @Test
+    public void testToMove() {
+        final MoveBuffer buffer = new MoveBuffer();
+        final long actions = MoveBuffer.append(turnForward(), 2, MoveBuffer.push(Direction.UP_LEFT));
+
+        buffer.add(actions, 3, Cell.of(1, 0), Cell.of(0, -1), Direction.DOWN_RIGHT, 2, 3, 1, 0, 1, 2, 3, false);
+
+        final Move expectedMove = new Move(new Vector3(0, 0, 0), new Vector3(1, -1, 0), Direction.RIGHT);
+        expectedMove.turn(Direction.DOWN_RIGHT);
+        expectedMove.forward(2, 2);
+        expectedMove.push(Direction.UP_LEFT);
+        expectedMove.segment(2, 3);
+
+        final Move move = buffer.toMove(0);
+
+        assertEquals(List.of(ActionFactory.turn(Direction.DOWN_RIGHT), ActionFactory.forward(2), ActionFactory.push(Direction.UP_LEFT)), move.getActions());
+        assertEquals(new Vector3(1, 0, -1), move.getEndPosition());
+        assertEquals(new Vector3(0, -1, 1), move.getEnemyEndPosition());
+        assertEquals(expectedMove.getDistance(), move.getDistance());
+        assertEquals(expectedMove.getTotalCost(), move.getTotalCost());
+        assertEquals(expectedMove.getPushes(), move.getPushes());
+        assertEquals(expectedMove.getSegmentIndex(), move.getSegmentIndex());
+        assertEquals(expectedMove.getSegmentColumn(), move.getSegmentColumn());
+    }
+
+    @Test
+    public void testGetCoalCost() {
+        final MoveBuffer buffer = new MoveBuffer();
+        long actions = MoveBuffer.append(turnForward(), 2, MoveBuffer.turn(Direction.DOWN_LEFT));
+        actions = MoveBuffer.append(actions, 3, MoveBuffer.forward(3));
+
+        buffer.add(actions, 4, Cell.of(0, 4), Cell.NONE, Direction.DOWN_LEFT, 5, 5, 3, 0, 0, 0, 0, false);
+
+        assertEquals(buffer.toMove(0).getCoalCost(Direction.RIGHT, 1, 1), buffer.getCoalCost(0, Direction.RIGHT, 1, 1));
+    }
+
+    private static long turnForward() {
+        return MoveBuffer.append(MoveBuffer.append(0L, 0, MoveBuffer.turn(Direction.DOWN_RIGHT)), 1, MoveBuffer.forward(2));
+    }
+
+}
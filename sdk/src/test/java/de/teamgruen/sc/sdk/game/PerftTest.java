@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    private static final String MEMENTO = "<room roomId=\"test\"><data class=\"memento\"><state class=\"state\" startTeam=\"ONE\" currentTeam=\"ONE\" turn=\"6\"><board nextDirection=\"DOWN_LEFT\"><segment direction=\"RIGHT\"><center q=\"0\" r=\"0\" s=\"0\"/><field-array><water/><water/><water/><water/><water/></field-array><field-array><water/><water/><water/><water/><water/></field-array><field-array><water/><island/><water/><water/><water/></field-array><field-array><water/><water/><water/><water/><water/></field-array></segment><segment direction=\"DOWN_RIGHT\"><center q=\"0\" r=\"4\" s=\"-4\"/><field-array><water/><passenger direction=\"RIGHT\" passenger=\"1\"/><water/><water/><water/></field-array><field-array><water/><water/><water/><water/><water/></field-array><field-array><water/><water/><water/><water/><island/></field-array><field-array><water/><water/><water/><water/><water/></field-array></segment><segment direction=\"DOWN_LEFT\"><center q=\"-4\" r=\"8\" s=\"-4\"/><field-array><passenger direction=\"UP_LEFT\" passenger=\"1\"/><water/><water/><island/><water/></field-array><field-array><water/><water/><water/><water/><island/></field-array><field-array><water/><water/><water/><water/><water/></field-array><field-array><water/><goal/><goal/><goal/><water/></field-array></segment></board><ship team=\"ONE\" direction=\"LEFT\" speed=\"1\" coal=\"5\" passengers=\"2\" freeTurns=\"2\" points=\"16\" stuck=\"false\"><position q=\"2\" r=\"0\" s=\"-2\"/></ship><ship team=\"TWO\" direction=\"RIGHT\" speed=\"2\" coal=\"6\" passengers=\"1\" freeTurns=\"1\" points=\"10\" stuck=\"false\"><position q=\"1\" r=\"0\" s=\"-1\"/></ship><lastMove><actions><acceleration acc=\"1\"/><advance distance=\"2\"/><push direction=\"RIGHT\"/><turn direction=\"RIGHT\"/></actions></lastMove></state></data></room>";
+
+    @Test
+    public void testCount_ExampleGameState() {
+        final Perft perft = new Perft(new ExampleGameState());
+
+        assertEquals(1, perft.count(0));
+        assertEquals(58, perft.count(1));
+        assertEquals(4784, perft.count(2));
+        assertEquals(314735, perft.count(3));
+    }
+
+    @Test
+    public void testCount_Memento() {
+        final GameState gameState = Perft.fromMemento(MEMENTO);
+        final Perft perft = new Perft(gameState);
+
+        assertEquals(Team.ONE, gameState.getCurrentTeam());
+        assertEquals(53, perft.count(1));
+        assertEquals(7746, perft.count(2));
+        assertEquals(506414, perft.count(3));
+    }
+
+    @Test
+    public void testCount_RandomBoard() {
+        final Perft perft = new Perft(Perft.randomState(42));
+
+        assertEquals(79, perft.count(1));
+        assertEquals(6309, perft.count(2));
+        assertEquals(590295, perft.count(3));
+    }
+
+    @Test
+    public void testCount_RestoresState() {
+        final GameState gameState = Perft.randomState(7);
+        final long hash = gameState.getHash();
+
+        new Perft(gameState).count(3);
+
+        assertEquals(hash, gameState.getHash());
+        assertEquals(0, gameState.getUndoDepth());
+    }
+
+    @Test
+    public void testRandomState_Deterministic() {
+        final GameState first = Perft.randomState(42), second = Perft.randomState(42);
+
+        assertEquals(first.getBoard().getSegments(), second.getBoard().getSegments());
+        assertEquals(first.getHash(), second.getHash());
+    }
+
+    @Test
+    public void testRun() {
+        final Perft.Result result = new Perft(new ExampleGameState()).run(2);
+
+        assertEquals(2, result.depth());
+        assertEquals(new Perft(new ExampleGameState()).count(2), result.nodes());
+        assertTrue(result.nanos() > 0);
+        assertTrue(result.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    public void testCount_NegativeDepth() {
+        final Perft perft = new Perft(new ExampleGameState());
+
+        assertThrows(IllegalArgumentException.class, () -> perft.count(-1));
+    }
+
+    @Test
+    public void testFromMemento_NoMemento() {
+        assertThrows(IllegalArgumentException.class, () -> Perft.fromMemento("<room roomId=\"test\"><data class=\"moveRequest\"/></room>"));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.actions.ActionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testProbe() {
+        final TranspositionTable table = new TranspositionTable(4);
+        final int generation = table.newGeneration();
+        final long bestMove = MoveBuffer.pack(List.of(
+                ActionFactory.changeVelocity(1),
+                ActionFactory.turn(Direction.DOWN_RIGHT),
+                ActionFactory.forward(2)
+        ));
+
+        table.store(42, generation, 3, 12.5, bestMove);
+
+        final TranspositionTable.Entry entry = table.probe(42, generation, 3);
+
+        assertNotNull(entry);
+        assertEquals(3, entry.depth());
+        assertEquals(12.5, entry.score());
+        assertEquals(List.of(
+                ActionFactory.turn(Direction.DOWN_RIGHT),
+                ActionFactory.forward(2)
+        ), MoveBuffer.toActions(entry.bestMove(), MoveBuffer.actionCount(entry.bestMove())));
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getStores());
+    }
+
+    @Test
+    public void testProbe_Miss() {
+        final TranspositionTable table = new TranspositionTable(4);
+        final int generation = table.newGeneration();
+
+        table.store(42, generation, 2, 1, 0);
+
+        assertNull(table.probe(43, generation, 2));
+        assertNull(table.probe(42, generation, 3));
+        assertEquals(0, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(0, table.getHitRate());
+    }
+
+    @Test
+    public void testProbe_OldGeneration() {
+        final TranspositionTable table = new TranspositionTable(4);
+        final int generation = table.newGeneration();
+
+        table.store(42, generation, 2, 1, 0);
+
+        assertNull(table.probe(42, table.newGeneration(), 2));
+    }
+
+    @Test
+    public void testStore_SameKey() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final int generation = table.newGeneration();
+
+        table.store(42, generation, 2, 1, 0);
+        table.store(42, generation, 2, 2, 0);
+
+        final TranspositionTable.Entry entry = table.probe(42, generation, 2);
+
+        assertNotNull(entry);
+        assertEquals(2, entry.score());
+    }
+
+    @Test
+    public void testStore_DepthPreferred() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final int generation = table.newGeneration();
+
+        table.store(1, generation, 5, 1, 0);
+        table.store(2, generation, 1, 2, 0);
+        table.store(3, generation, 1, 3, 0);
+
+        // the deep entry keeps its slot, the shallow entries share the other one
+        assertNotNull(table.probe(1, generation, 5));
+        assertNull(table.probe(2, generation, 1));
+        assertNotNull(table.probe(3, generation, 1));
+        assertEquals(1, table.getCollisions());
+    }
+
+    @Test
+    public void testStore_KeepsDeeperEntry() {
+        final TranspositionTable table = new TranspositionTable(4);
+        final int generation = table.newGeneration();
+
+        table.store(42, generation, 3, 1, 0);
+        table.store(42, generation, 2, 2, 0);
+
+        assertEquals(1, table.probe(42, generation, 2).score());
+    }
+
+    @Test
+    public void testResetStats() {
+        final TranspositionTable table = new TranspositionTable(4);
+
+        table.probe(42, table.newGeneration(), 0);
+        table.resetStats();
+
+        assertEquals(0, table.getMisses());
+    }
+
+    @Test
+    public void testOfMegabytes() {
+        assertEquals(32768, TranspositionTable.ofMegabytes(1).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.ofMegabytes(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+}
@@ -5,6 +5,7 @@
 
 package de.teamgruen.sc.sdk.game;
 
+import de.teamgruen.sc.sdk.protocol.data.Direction;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,6 +20,20 @@ public class Vector3Test {
         assertEquals(new Vector3(5, 7, 9), vector.add(delta));
     }
 
+    @Test
+    public void testAdd_Direction() {
+        final Vector3 vector = new Vector3(1, 2, 3);
+
+        assertEquals(new Vector3(2, 2, 2), vector.add(Direction.RIGHT));
+    }
+
+    @Test
+    public void testAdd_DirectionTimes() {
+        final Vector3 vector = new Vector3(1, 2, 3);
+
+        assertEquals(new Vector3(1, 5, 0), vector.add(Direction.DOWN_RIGHT, 3));
+    }
+
     @Test
     public void testSubtract() {
         final Vector3 vector = new Vector3(1, 2, 3);
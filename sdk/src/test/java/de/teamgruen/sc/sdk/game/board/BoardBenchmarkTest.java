@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.game.board;
+
+import de.teamgruen.sc.sdk.game.Cell;
+import de.teamgruen.sc.sdk.game.MoveBuffer;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Position;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import de.teamgruen.sc.sdk.protocol.data.board.FieldArray;
+import de.teamgruen.sc.sdk.protocol.data.board.SegmentData;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.Field;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldFactory;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.Passenger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BoardBenchmarkTest {
+
+    private static final int ITERATIONS = 2_000;
+    private static final Direction[] SEGMENT_DIRECTIONS = {
+            Direction.RIGHT, Direction.DOWN_RIGHT, Direction.RIGHT, Direction.UP_RIGHT,
+            Direction.RIGHT, Direction.DOWN_RIGHT, Direction.DOWN_LEFT, Direction.DOWN_RIGHT
+    };
+
+    @Test
+    public void testMementoIngestion_FullBoard() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final List<SegmentData> segments = getFullBoard();
+
+        // warm up
+        for (int i = 0; i < ITERATIONS; i++)
+            assertEquals(8, ingest(segments).newSegments());
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++)
+            ingest(segments);
+
+        final long allocatedPerIngestion = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        // bounds the new board with its grid, caches and indices together with the ingested segments
+        assertTrue(allocatedPerIngestion < 256 * 1024, "full memento allocated " + allocatedPerIngestion + " bytes");
+    }
+
+    @Test
+    public void testMementoIngestion_KnownSegments() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final List<SegmentData> segments = getFullBoard();
+        final Board board = new Board();
+        board.setNextSegmentDirection(Direction.RIGHT);
+        board.updateSegments(segments);
+
+        // warm up
+        for (int i = 0; i < ITERATIONS; i++)
+            assertTrue(board.updateSegments(segments).isEmpty());
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++)
+            board.updateSegments(segments);
+
+        final long allocatedPerUpdate = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        // only the change set itself may be allocated for an unchanged board
+        assertTrue(allocatedPerUpdate < 2048, "unchanged memento allocated " + allocatedPerUpdate + " bytes");
+    }
+
+    @Test
+    public void testMementoIngestion_PassengerChange() {
+        final Board board = new Board();
+        board.setNextSegmentDirection(Direction.RIGHT);
+        board.updateSegments(getFullBoard());
+
+        final int passengerCount = board.getPassengerCells().size();
+        // every memento is deserialized into new field instances
+        final List<SegmentData> segments = getFullBoard();
+
+        ((Passenger) segments.get(3).getColumns().get(1).getFields().get(2)).setPassenger(0);
+
+        final BoardChanges changes = board.updateSegments(segments);
+
+        assertFalse(changes.hasNewSegments());
+        assertEquals(1, changes.changedPassengerCells().size());
+        assertEquals(passengerCount - 1, board.getPassengerCells().size());
+    }
+
+    @Test
+    public void testMoveGeneration_Allocation() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final Board board = new Board();
+        board.setNextSegmentDirection(Direction.RIGHT);
+        board.updateSegments(getFullBoard());
+
+        final Ship playerShip = new Ship(Team.ONE), enemyShip = new Ship(Team.TWO);
+        final MoveBuffer buffer = new MoveBuffer();
+        final int start = Cell.of(0, 0), enemyCell = Cell.of(2, -1);
+
+        // warm up and grow the buffer to its working size
+        for (int i = 0; i < ITERATIONS; i++)
+            assertTrue(board.getMoves(buffer, playerShip, start, Direction.RIGHT, enemyShip, enemyCell, 3, 1, 3, false) > 0);
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++)
+            board.getMoves(buffer, playerShip, start, Direction.RIGHT, enemyShip, enemyCell, 3, 1, 3, false);
+
+        final long allocatedPerGeneration = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+
+        assertTrue(allocatedPerGeneration < 256, "move generation allocated " + allocatedPerGeneration + " bytes");
+    }
+
+    private static BoardChanges ingest(List<SegmentData> segments) {
+        final Board board = new Board();
+        board.setNextSegmentDirection(Direction.RIGHT);
+
+        return board.updateSegments(segments);
+    }
+
+    private static List<SegmentData> getFullBoard() {
+        final List<SegmentData> segments = new ArrayList<>();
+        final Field water = FieldFactory.water();
+        int q = 0, r = 0;
+
+        for (int i = 0; i < SEGMENT_DIRECTIONS.length; i++) {
+            final Direction direction = SEGMENT_DIRECTIONS[i];
+            final List<FieldArray> columns = new ArrayList<>();
+
+            if(i > 0) {
+                q += direction.getQ() * 4;
+                r += direction.getR() * 4;
+            }
+
+            for (int column = 0; column < 4; column++) {
+                final List<Field> fields = new ArrayList<>(List.of(water, water, water, water, water));
+
+                // one passenger in the middle of the second column, facing back into the segment
+                if(column == 1)
+                    fields.set(2, FieldFactory.passenger(direction.rotate(3), 1));
+
+                columns.add(new FieldArray(fields));
+            }
+
+            final SegmentData segment = new SegmentData();
+            segment.setCenter(new Position(q, r, -q - r));
+            segment.setDirection(direction);
+            segment.setColumns(columns);
+            segments.add(segment);
+        }
+
+        return segments;
+    }
+
+}
@@ -7,19 +7,22 @@ package de.teamgruen.sc.sdk.game.board;
 
 import de.teamgruen.sc.sdk.game.*;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Position;
 import de.teamgruen.sc.sdk.protocol.data.actions.Action;
 import de.teamgruen.sc.sdk.protocol.data.actions.ActionFactory;
+import de.teamgruen.sc.sdk.protocol.data.board.FieldArray;
+import de.teamgruen.sc.sdk.protocol.data.board.SegmentData;
 import de.teamgruen.sc.sdk.protocol.data.board.fields.Field;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldCode;
+import de.teamgruen.sc.sdk.protocol.data.board.fields.FieldFactory;
 import de.teamgruen.sc.sdk.protocol.data.board.fields.Island;
 import de.teamgruen.sc.sdk.protocol.data.board.fields.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
-import java.util.Arrays;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +48,54 @@ public class BoardTest {
         )).toList());
 
         assertTrue(this.board.getPassengerFields().isEmpty());
+        assertTrue(this.board.getPassengerCells().isEmpty());
+        assertTrue(this.board.getCollectCells().isEmpty());
+    }
+
+    @Test
+    public void testUpdateSegments_ChangedPassengers() {
+        final BoardChanges changes = this.board.updateSegments(ExampleGameState.getSampleSegments().stream().peek(segment ->
+            segment.getColumns().forEach(column -> column.getFields().forEach(field -> {
+                if (field instanceof Passenger)
+                    ((Passenger) field).setPassenger(0);
+            })
+        )).toList());
+
+        assertFalse(changes.hasNewSegments());
+        assertEquals(2, changes.changedPassengerCells().size());
+        assertTrue(changes.changedPassengerCells().contains(Cell.of(1, 2)));
+        assertTrue(changes.changedPassengerCells().contains(Cell.of(-1, 7)));
+        assertSame(changes, this.board.getLastChanges());
+    }
+
+    @Test
+    public void testUpdateSegments_Unchanged() {
+        final Field passengerField = this.board.getFieldAt(new Vector3(-1, 7, -6));
+        final BoardChanges changes = this.board.updateSegments(ExampleGameState.getSampleSegments());
+
+        assertTrue(changes.isEmpty());
+        assertEquals(3, this.board.getSegments().size());
+        assertSame(passengerField, this.board.getFieldAt(new Vector3(-1, 7, -6)));
+    }
+
+    @Test
+    public void testUpdateSegments_NewSegment() {
+        final List<SegmentData> segments = new ArrayList<>(ExampleGameState.getSampleSegments());
+        final SegmentData newSegment = new SegmentData();
+        final Field water = FieldFactory.water();
+
+        newSegment.setCenter(new Position(-8, 12, -4));
+        newSegment.setDirection(Direction.DOWN_LEFT);
+        newSegment.setColumns(Collections.nCopies(4, new FieldArray(Collections.nCopies(5, water))));
+        segments.add(newSegment);
+
+        final BoardChanges changes = this.board.updateSegments(segments);
+
+        assertTrue(changes.hasNewSegments());
+        assertFalse(changes.hasPassengerChanges());
+        assertTrue(changes.isNewSegment(3));
+        assertFalse(changes.isNewSegment(2));
+        assertEquals(3, this.board.getSegmentIndex(new Vector3(-8, 12, -4)));
     }
 
     @Test
@@ -96,11 +147,30 @@ public class BoardTest {
         assertArrayEquals(vectorsToArray(expected), vectorsToArray(this.board.getCounterCurrent()));
     }
 
+    @Test
+    public void testUpdateCounterCurrent_NoDuplicates() {
+        final int size = this.board.getCounterCurrent().size();
+
+        this.board.updateCounterCurrent(0);
+
+        assertEquals(size, this.board.getCounterCurrent().size());
+    }
+
+    @Test
+    public void testGetCounterCurrent_ReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> this.board.getCounterCurrent().add(new Vector3(0, 0, 0)));
+    }
+
     @Test
     public void testIsCounterCurrent() {
         assertTrue(this.board.isCounterCurrent(new Vector3(-2, 6, -4)));
     }
 
+    @Test
+    public void testIsCounterCurrent_None() {
+        assertFalse(this.board.isCounterCurrent(Cell.NONE));
+    }
+
     @Test
     public void testGetGoalFields() {
         assertTrue(this.board.getGoalFields().containsKey(new Vector3(-6, 10, -4)));
@@ -115,6 +185,53 @@ public class BoardTest {
         assertEquals(Direction.UP_LEFT, ((Passenger) actualField).getDirection());
     }
 
+    @Test
+    public void testGetPassengerFields_ReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> this.board.getPassengerFields().clear());
+    }
+
+    @Test
+    public void testGetGoalCells() {
+        assertTrue(this.board.getGoalCells().contains(Cell.of(-6, 10)));
+        assertEquals(this.board.getGoalFields().size(), this.board.getGoalCells().size());
+    }
+
+    @Test
+    public void testGetPassengerCells() {
+        assertTrue(this.board.getPassengerCells().contains(Cell.of(-1, 7)));
+        assertEquals(this.board.getPassengerFields().size(), this.board.getPassengerCells().size());
+    }
+
+    @Test
+    public void testGetCollectCells() {
+        assertTrue(this.board.getCollectCells().contains(Cell.of(-1, 6)));
+        assertFalse(this.board.getCollectCells().contains(Cell.of(-1, 7)));
+    }
+
+    @Test
+    public void testGetFieldCode() {
+        assertEquals(FieldCode.island(), this.board.getFieldCode(Cell.of(-3, 6)));
+        assertEquals(FieldCode.passenger(Direction.UP_LEFT, 1), this.board.getFieldCode(Cell.of(-1, 7)));
+        assertEquals(FieldCode.NONE, this.board.getFieldCode(Cell.of(20, 20)));
+        assertEquals(FieldCode.NONE, this.board.getFieldCode(Cell.NONE));
+    }
+
+    @Test
+    public void testSetPassengers() {
+        final Passenger passenger = (Passenger) this.board.getFieldAt(Cell.of(-1, 7));
+
+        this.board.setPassengers(Cell.of(-1, 7), 0);
+
+        assertEquals(0, passenger.getPassenger());
+        assertEquals(0, FieldCode.getPassengers(this.board.getFieldCode(Cell.of(-1, 7))));
+        assertFalse(this.board.getPassengerFields().containsKey(new Vector3(-1, 7, -6)));
+    }
+
+    @Test
+    public void testSetPassengers_NoPassengerField() {
+        assertThrows(IllegalArgumentException.class, () -> this.board.setPassengers(Cell.of(-3, 6), 0));
+    }
+
     @Test
     public void testGetFieldAt() {
         final Field actualField = this.board.getFieldAt(new Vector3(-3, 6, -3));
@@ -123,6 +240,21 @@ public class BoardTest {
         assertInstanceOf(Island.class, actualField);
     }
 
+    @Test
+    public void testGetFieldAt_Cell() {
+        assertInstanceOf(Island.class, this.board.getFieldAt(Cell.of(-3, 6)));
+    }
+
+    @Test
+    public void testGetFieldAt_OutsideGrid() {
+        assertNull(this.board.getFieldAt(new Vector3(Cell.RADIUS + 1, 0, -Cell.RADIUS - 1)));
+    }
+
+    @Test
+    public void testGetFieldAt_NoCell() {
+        assertNull(this.board.getFieldAt(Cell.NONE));
+    }
+
     @Test
     public void testIsBlocked_Null() {
         assertTrue(this.board.isBlocked(new Vector3(-2, 0, 2)));
@@ -175,6 +307,16 @@ public class BoardTest {
         assertEquals(0.25, actualSegmentPosition);
     }
 
+    @Test
+    public void testGetSegmentProgress() {
+        assertEquals(6, this.board.getSegmentProgress(Cell.of(1, 4)));
+    }
+
+    @Test
+    public void testGetSegmentProgressDistance() {
+        assertEquals(-1, this.board.getSegmentProgressDistance(Cell.of(0, 0), Cell.of(-1, 0)));
+    }
+
     @Test
     public void testGetSegmentDistance_Positive() {
         final double actualSegmentPosition = this.board.getSegmentDistance(new Vector3(0, 0, 0), new Vector3(1, 0, -1));
@@ -346,6 +488,166 @@ public class BoardTest {
         ));
     }
 
+    @Test
+    public void testGetBestPushDirection_Cache() {
+        final Ship enemyShip = this.gameState.getEnemyShip();
+        final Vector3 enemyPosition = new Vector3(-5, 9, -4);
+        enemyShip.setPassengers(2);
+        enemyShip.setSpeed(2);
+
+        assertEquals(Direction.DOWN_RIGHT, this.board.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, false));
+        assertEquals(Direction.DOWN_RIGHT, this.board.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, false));
+
+        // a different ship state must not be answered from the cache
+        enemyShip.setPassengers(0);
+        enemyShip.setSpeed(1);
+
+        final Board uncachedBoard = new ExampleGameState().getBoard();
+
+        assertEquals(
+                uncachedBoard.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, false),
+                this.board.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, false)
+        );
+        assertEquals(
+                uncachedBoard.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, true),
+                this.board.getBestPushDirection(Direction.DOWN_LEFT, enemyShip, enemyPosition, true)
+        );
+    }
+
+    @Test
+    public void testCanReachActionFieldInNextRound_Precomputed() {
+        final Ship enemyShip = this.gameState.getEnemyShip();
+        enemyShip.setPassengers(2);
+
+        for (int cell = 0; cell < Cell.COUNT; cell++) {
+            if(!Cell.isValid(cell))
+                continue;
+
+            assertEquals(
+                    this.board.canReachActionFieldInNextRound(enemyShip, cell, Cell.NONE, this.board.getCollectCells()),
+                    this.board.canCollectPassengerInNextRound(enemyShip, cell, Cell.NONE)
+            );
+            assertEquals(
+                    this.board.canReachActionFieldInNextRound(enemyShip, cell, Cell.NONE, this.board.getGoalCells()),
+                    this.board.canFinishInNextRound(enemyShip, cell, Cell.NONE)
+            );
+        }
+
+        final int collectCell = this.board.getCollectCells().get(0);
+
+        while (this.board.canPickUpPassenger(collectCell))
+            this.board.setPassengers(this.board.getPickUpPassengerCell(collectCell), 0);
+
+        assertFalse(this.board.canCollectPassengerInNextRound(enemyShip, Cell.add(collectCell, Direction.LEFT), Cell.NONE));
+    }
+
+    @Test
+    public void testGetAdvanceLimit_Cache() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final int start = Cell.of(0, -1), enemyCell = Cell.of(this.gameState.getEnemyShip().getPosition());
+
+        this.board.resetAdvanceCacheStats();
+
+        final AdvanceInfo expectedAdvanceLimit = this.board.getAdvanceLimit(playerShip, start, Direction.DOWN_RIGHT, enemyCell, 1, 0, 3);
+        final AdvanceInfo actualAdvanceLimit = this.board.getAdvanceLimit(playerShip, start, Direction.DOWN_RIGHT, enemyCell, 1, 0, 3);
+
+        assertEquals(expectedAdvanceLimit, actualAdvanceLimit);
+        assertNotSame(expectedAdvanceLimit, actualAdvanceLimit);
+        assertEquals(1, this.board.getAdvanceCacheHits());
+        assertEquals(1, this.board.getAdvanceCacheMisses());
+        assertEquals(0.5, this.board.getAdvanceCacheHitRate());
+
+        this.board.updateSegments(ExampleGameState.getSampleSegments());
+        this.board.getAdvanceLimit(playerShip, start, Direction.DOWN_RIGHT, enemyCell, 1, 0, 3);
+
+        assertEquals(2, this.board.getAdvanceCacheMisses());
+    }
+
+    @Test
+    public void testGetAdvanceLimit_CacheInvalidatedByPassengerChange() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final int collectCell = this.board.getCollectCells().get(0);
+        final int start = Cell.add(collectCell, Direction.RIGHT, -1);
+
+        assertEquals(AdvanceInfo.Result.PASSENGER, this.board.getAdvanceLimit(playerShip, start, Direction.RIGHT, Cell.NONE, 1, 0, 1).getResult());
+
+        while (this.board.canPickUpPassenger(collectCell))
+            this.board.setPassengers(this.board.getPickUpPassengerCell(collectCell), 0);
+
+        assertNotEquals(AdvanceInfo.Result.PASSENGER, this.board.getAdvanceLimit(playerShip, start, Direction.RIGHT, Cell.NONE, 1, 0, 1).getResult());
+    }
+
+    @Test
+    public void testGetAdvanceLimit_CacheKeptOnPassengerChange() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final int start = Cell.of(0, -1), enemyCell = Cell.of(this.gameState.getEnemyShip().getPosition());
+
+        this.board.resetAdvanceCacheStats();
+        this.board.getAdvanceLimit(playerShip, start, Direction.DOWN_RIGHT, enemyCell, 1, 0, 3);
+        this.board.setPassengers(Cell.of(-1, 7), 0);
+        this.board.setPassengers(Cell.of(-1, 7), 1);
+        this.board.getAdvanceLimit(playerShip, start, Direction.DOWN_RIGHT, enemyCell, 1, 0, 3);
+
+        assertEquals(1, this.board.getAdvanceCacheHits());
+        assertEquals(1, this.board.getAdvanceCacheMisses());
+    }
+
+    @Test
+    public void testSetPassengers_RestoresCollectCells() {
+        final Ship enemyShip = this.gameState.getEnemyShip();
+        final int passengerCell = Cell.of(-1, 7);
+        final List<Integer> collectCells = new ArrayList<>();
+        final Map<Vector3, Boolean> canCollect = new HashMap<>();
+
+        for (int i = 0; i < this.board.getCollectCells().size(); i++)
+            collectCells.add(this.board.getCollectCells().get(i));
+
+        for (Vector3 position : this.board.getFields().keySet())
+            canCollect.put(position, this.board.canCollectPassengerInNextRound(enemyShip, Cell.of(position), Cell.NONE));
+
+        this.board.setPassengers(passengerCell, 0);
+
+        assertEquals(collectCells.size() - 1, this.board.getCollectCells().size());
+
+        this.board.setPassengers(passengerCell, 1);
+
+        for (int i = 0; i < collectCells.size(); i++)
+            assertEquals(collectCells.get(i), this.board.getCollectCells().get(i));
+
+        for (Vector3 position : this.board.getFields().keySet())
+            assertEquals(canCollect.get(position), this.board.canCollectPassengerInNextRound(enemyShip, Cell.of(position), Cell.NONE));
+    }
+
+    @Test
+    public void testGetFreeDistance() {
+        for (Vector3 position : this.board.getFields().keySet()) {
+            final int start = Cell.of(position);
+
+            for (Direction direction : Direction.values()) {
+                int cell = Cell.add(start, direction), freeDistance = 0, counterCurrentOffset = 0;
+
+                while (!this.board.isBlocked(cell)) {
+                    freeDistance++;
+
+                    if (counterCurrentOffset == 0 && this.board.isCounterCurrent(cell))
+                        counterCurrentOffset = freeDistance;
+
+                    cell = Cell.add(cell, direction);
+                }
+
+                assertEquals(freeDistance, this.board.getFreeDistance(start, direction));
+                assertEquals(counterCurrentOffset, this.board.getCounterCurrentOffset(start, direction));
+            }
+        }
+    }
+
+    @Test
+    public void testGetFreeDistance_NotRevealed() {
+        assertEquals(-1, this.board.getFreeDistance(Cell.of(-30, 0), Direction.RIGHT));
+        assertEquals(-1, this.board.getFreeDistance(Cell.NONE, Direction.RIGHT));
+        assertEquals(0, this.board.getCounterCurrentOffset(Cell.NONE, Direction.RIGHT));
+    }
+
     @Test
     public void testGetAdvanceLimit_OutOfMap() {
         final AdvanceInfo actualAdvanceLimit = this.board.getAdvanceLimit(
@@ -780,6 +1082,117 @@ public class BoardTest {
         assertTrue(expectedMoves.containsAll(actualMoves));
     }
 
+    @Test
+    public void testGetMoves_Buffer() {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final MoveBuffer buffer = new MoveBuffer(1);
+        final Set<Move> expectedMoves = this.board.getMoves(
+                playerShip,
+                new Vector3(0, -1, 1),
+                Direction.RIGHT,
+                enemyShip,
+                new Vector3(-2, 1, 1),
+                2,
+                1,
+                2,
+                false
+        );
+
+        // generate twice to make sure the buffer is cleared
+        for (int i = 0; i < 2; i++) {
+            final int count = this.board.getMoves(
+                    buffer,
+                    playerShip,
+                    Cell.of(0, -1),
+                    Direction.RIGHT,
+                    enemyShip,
+                    Cell.of(-2, 1),
+                    2,
+                    1,
+                    2,
+                    false
+            );
+
+            assertEquals(expectedMoves.size(), count);
+
+            final Set<Move> actualMoves = new HashSet<>();
+
+            for (int j = 0; j < count; j++)
+                actualMoves.add(buffer.toMove(j));
+
+            assertEquals(expectedMoves, actualMoves);
+        }
+    }
+
+    @Test
+    public void testGetMoves_Parallel() {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final MoveBuffer expectedBuffer = new MoveBuffer(), actualBuffer = new MoveBuffer();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            final int expectedCount = this.board.getMoves(expectedBuffer, playerShip, Cell.of(0, -1), Direction.RIGHT,
+                    enemyShip, Cell.of(-2, 1), 3, 1, 4, false);
+            final int actualCount = this.board.getMoves(actualBuffer, playerShip, Cell.of(0, -1), Direction.RIGHT,
+                    enemyShip, Cell.of(-2, 1), 3, 1, 4, false, pool);
+
+            assertEquals(expectedCount, actualCount);
+
+            for (int i = 0; i < expectedCount; i++)
+                assertEquals(expectedBuffer.toMove(i), actualBuffer.toMove(i));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamMoves() {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final Set<Move> expectedMoves = this.board.getMoves(playerShip, new Vector3(0, -1, 1), Direction.RIGHT,
+                enemyShip, new Vector3(-2, 1, 1), 2, 1, 2, false);
+        final List<Move> actualMoves = this.board.streamMoves(playerShip, new Vector3(0, -1, 1), Direction.RIGHT,
+                enemyShip, new Vector3(-2, 1, 1), 2, 1, 2, false).toList();
+
+        assertEquals(expectedMoves, new HashSet<>(actualMoves));
+
+        for (int i = 1; i < actualMoves.size(); i++) {
+            final Move previousMove = actualMoves.get(i - 1), move = actualMoves.get(i);
+
+            assertTrue(previousMove.getSegmentIndex() * 4 + previousMove.getSegmentColumn()
+                    >= move.getSegmentIndex() * 4 + move.getSegmentColumn());
+        }
+    }
+
+    @Test
+    public void testGetMoves_UniqueEndStates() {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final Set<Move> moves = this.board.getMoves(
+                playerShip,
+                new Vector3(0, -1, 1),
+                Direction.RIGHT,
+                enemyShip,
+                new Vector3(-2, 1, 1),
+                3,
+                1,
+                4,
+                false
+        );
+        final Set<List<Object>> endStates = new HashSet<>();
+
+        for (Move move : moves) {
+            assertTrue(endStates.add(List.of(
+                    move.getEndPosition(),
+                    move.getEndDirection(),
+                    move.getTotalCost(),
+                    Objects.requireNonNull(move.getEnemyEndPosition()),
+                    move.getPassengers(),
+                    move.isGoal()
+            )), "duplicate end state: " + move);
+        }
+
+        assertFalse(moves.isEmpty());
+    }
+
     @Test
     public void testGetFieldPositions() {
         final List<Vector3> expectedPositions = Arrays.asList(
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.protocol.data;
+
+import de.teamgruen.sc.sdk.game.Vector3;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DirectionBenchmarkTest {
+
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    public void testDirectionArithmetic_AllocationFree() {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final Vector3 position = new Vector3(0, 0, 0);
+
+        // warm up
+        long checksum = run(position);
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += run(position);
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertEquals(2 * expectedChecksum(), checksum);
+        // a single allocation per iteration would already be several megabytes
+        assertTrue(allocated < 4096, "direction arithmetic allocated " + allocated + " bytes");
+    }
+
+    private static long run(Vector3 position) {
+        long checksum = 0;
+        Direction direction = Direction.RIGHT;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            final Direction rotated = direction.rotate(i % 7 - 3);
+
+            checksum += direction.delta(rotated) + direction.costTo(rotated);
+            checksum += Direction.fromDelta(rotated.getQ(), rotated.getR()).ordinal();
+            position.add(rotated);
+            direction = rotated;
+        }
+
+        return checksum;
+    }
+
+    private static long expectedChecksum() {
+        long checksum = 0;
+        int ordinal = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            final int rotations = i % 7 - 3;
+            final int rotated = Math.floorMod(ordinal + rotations, 6);
+            final int delta = Math.floorMod(rotated - ordinal, 6) > 3 ? Math.floorMod(rotated - ordinal, 6) - 6 : Math.floorMod(rotated - ordinal, 6);
+
+            checksum += delta + Math.abs(delta) + rotated;
+            ordinal = rotated;
+        }
+
+        return checksum;
+    }
+
+}
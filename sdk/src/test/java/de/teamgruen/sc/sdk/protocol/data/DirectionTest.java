@@ -8,8 +8,7 @@ package de.teamgruen.sc.sdk.protocol.data;
 import de.teamgruen.sc.sdk.game.Vector3;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class DirectionTest {
 
@@ -38,6 +37,12 @@ public class DirectionTest {
         assertEquals(Direction.UP_RIGHT, Direction.RIGHT.rotate(-1));
     }
 
+    @Test
+    public void testRotate_MultipleTurns() {
+        assertEquals(Direction.DOWN_RIGHT, Direction.RIGHT.rotate(13));
+        assertEquals(Direction.UP_RIGHT, Direction.RIGHT.rotate(-7));
+    }
+
     @Test
     public void testRotateTo() {
         assertEquals(Direction.UP_RIGHT, Direction.UP_LEFT.rotateTo(Direction.UP_RIGHT, 1));
@@ -133,4 +138,22 @@ public class DirectionTest {
         assertThrows(IllegalArgumentException.class, () -> Direction.fromVector3(new Vector3(0, 0, 0)));
     }
 
+    @Test
+    public void testFromVector3_InvalidS() {
+        assertThrows(IllegalArgumentException.class, () -> Direction.fromVector3(new Vector3(1, 0, 0)));
+    }
+
+    @Test
+    public void testFromDelta() {
+        for (Direction direction : Direction.values())
+            assertEquals(direction, Direction.fromDelta(direction.getQ(), direction.getR()));
+    }
+
+    @Test
+    public void testFromDelta_Invalid() {
+        assertNull(Direction.fromDelta(0, 0));
+        assertNull(Direction.fromDelta(1, 1));
+        assertNull(Direction.fromDelta(2, -1));
+    }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.protocol.data.actions;
+
+import de.teamgruen.sc.sdk.game.ExampleGameState;
+import de.teamgruen.sc.sdk.game.GameState;
+import de.teamgruen.sc.sdk.game.Move;
+import de.teamgruen.sc.sdk.game.Zobrist;
+import de.teamgruen.sc.sdk.game.board.Ship;
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionHashTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    public void setUp() {
+        this.gameState = new ExampleGameState();
+    }
+
+    /**
+     * @return every action type with whether it changes the player's and the enemy's ship
+     */
+    private static Stream<Arguments> actions() {
+        return Stream.of(
+                Arguments.of(ActionFactory.changeVelocity(2), true, false),
+                Arguments.of(ActionFactory.forward(2), true, false),
+                Arguments.of(ActionFactory.turn(Direction.LEFT), true, false),
+                // only the pushed ship moves and gets free turns
+                Arguments.of(ActionFactory.push(Direction.RIGHT), false, true)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("actions")
+    public void testPerform_Hash(Action action, boolean changesPlayer, boolean changesEnemy) {
+        final Ship playerShip = this.gameState.getPlayerShip(), enemyShip = this.gameState.getEnemyShip();
+        final long initialHash = this.gameState.getHash();
+        final long playerKey = Zobrist.ship(playerShip), enemyKey = Zobrist.ship(enemyShip);
+
+        action.perform(this.gameState);
+
+        final long hash = this.gameState.getHash();
+        this.gameState.rehash();
+
+        assertNotEquals(initialHash, hash);
+        assertEquals(this.gameState.getHash(), hash);
+        assertEquals(changesPlayer, playerKey != Zobrist.ship(playerShip));
+        assertEquals(changesEnemy, enemyKey != Zobrist.ship(enemyShip));
+    }
+
+    @ParameterizedTest
+    @MethodSource("actions")
+    public void testUndo_Hash(Action action, boolean changesPlayer, boolean changesEnemy) {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final Ship enemyShip = this.gameState.getEnemyShip();
+        final Ship initialPlayerShip = copy(playerShip), initialEnemyShip = copy(enemyShip);
+        final long initialHash = this.gameState.getHash();
+        final Move move = new Move(playerShip.getPosition(), enemyShip.getPosition(), playerShip.getDirection());
+        move.getActions().add(action);
+
+        this.gameState.apply(Team.ONE, move);
+        this.gameState.undo();
+
+        assertEquals(initialHash, this.gameState.getHash());
+        assertEquals(initialPlayerShip, playerShip);
+        assertEquals(initialEnemyShip, enemyShip);
+    }
+
+    private static Ship copy(Ship ship) {
+        final Ship copy = new Ship(ship.getTeam());
+        copy.setPosition(ship.getPosition().copy());
+        copy.setDirection(ship.getDirection());
+        copy.setSpeed(ship.getSpeed());
+        copy.setCoal(ship.getCoal());
+        copy.setFreeTurns(ship.getFreeTurns());
+        copy.setPassengers(ship.getPassengers());
+        copy.setPoints(ship.getPoints());
+        copy.setStuck(ship.isStuck());
+
+        return copy;
+    }
+
+}
@@ -10,6 +10,7 @@ import de.teamgruen.sc.sdk.game.GameState;
 import de.teamgruen.sc.sdk.game.Vector3;
 import de.teamgruen.sc.sdk.game.board.Ship;
 import de.teamgruen.sc.sdk.protocol.data.Direction;
+import de.teamgruen.sc.sdk.protocol.data.Team;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -38,4 +39,15 @@ public class PushTest {
         assertEquals(2, enemyShip.getFreeTurns());
     }
 
+    @Test
+    public void testPerform_Team() {
+        final Ship playerShip = this.gameState.getPlayerShip();
+        final Vector3 expectedPosition = playerShip.getPosition().copy().add(Direction.RIGHT);
+
+        ActionFactory.push(Direction.RIGHT).perform(this.gameState, Team.TWO);
+
+        assertEquals(expectedPosition, playerShip.getPosition());
+        assertEquals(2, playerShip.getFreeTurns());
+    }
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024 Justus Geramb (https://www.justix.dev)
+ * All Rights Reserved.
+ */
+
+package de.teamgruen.sc.sdk.protocol.data.board.fields;
+
+import de.teamgruen.sc.sdk.protocol.data.Direction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldCodeTest {
+
+    @Test
+    public void testEncode() {
+        assertEquals(FieldCode.NONE, FieldCode.encode(null));
+        assertEquals(FieldCode.water(), FieldCode.encode(FieldFactory.water()));
+        assertEquals(FieldCode.island(), FieldCode.encode(FieldFactory.island()));
+        assertEquals(FieldCode.goal(), FieldCode.encode(FieldFactory.goal()));
+        assertEquals(FieldCode.passenger(Direction.UP_LEFT, 1), FieldCode.encode(FieldFactory.passenger(Direction.UP_LEFT, 1)));
+    }
+
+    @Test
+    public void testDecode() {
+        assertNull(FieldCode.decode(FieldCode.NONE));
+        assertSame(FieldFactory.water(), FieldCode.decode(FieldCode.water()));
+        assertSame(FieldFactory.island(), FieldCode.decode(FieldCode.island()));
+        assertSame(FieldFactory.goal(), FieldCode.decode(FieldCode.goal()));
+    }
+
+    @Test
+    public void testDecode_Passenger() {
+        for (Direction direction : Direction.values()) {
+            for (int passengers = 0; passengers <= FieldCode.MAX_PASSENGERS; passengers++)
+                assertEquals(new Passenger(direction, passengers), FieldCode.decode(FieldCode.passenger(direction, passengers)));
+        }
+    }
+
+    @Test
+    public void testPassenger_TooManyPassengers() {
+        assertThrows(IllegalArgumentException.class, () -> FieldCode.passenger(Direction.RIGHT, FieldCode.MAX_PASSENGERS + 1));
+    }
+
+    @Test
+    public void testIsObstacle() {
+        assertTrue(FieldCode.isObstacle(FieldCode.NONE));
+        assertFalse(FieldCode.isObstacle(FieldCode.water()));
+        assertTrue(FieldCode.isObstacle(FieldCode.island()));
+        assertFalse(FieldCode.isObstacle(FieldCode.goal()));
+        assertTrue(FieldCode.isObstacle(FieldCode.passenger(Direction.LEFT, 0)));
+    }
+
+    @Test
+    public void testWithPassengers() {
+        final byte code = FieldCode.withPassengers(FieldCode.passenger(Direction.DOWN_LEFT, 3), 1);
+
+        assertTrue(FieldCode.isPassenger(code));
+        assertEquals(Direction.DOWN_LEFT, FieldCode.getDirection(code));
+        assertEquals(1, FieldCode.getPassengers(code));
+    }
+
+}